@@ -70,12 +70,24 @@ public class AeronSerializationBenchmark {
         benchmarkWithSerializer(serializer, false);
     }
     
+    @Benchmark
+    public void benchmarkProtobufDirectSerialization() throws InterruptedException {
+        MessageSerializer<Trade> serializer = new TradeProtobufDirectSerializer();
+        benchmarkWithSerializer(serializer, false);
+    }
+    
     @Benchmark
     public void benchmarkJsonSerialization() throws InterruptedException {
         MessageSerializer<Trade> serializer = new TradeJsonSerializer();
         benchmarkWithSerializer(serializer, false);
     }
     
+    @Benchmark
+    public void benchmarkJsonDirectSerialization() throws InterruptedException {
+        MessageSerializer<Trade> serializer = new TradeJsonDirectSerializer();
+        benchmarkWithSerializer(serializer, false);
+    }
+    
     @Benchmark
     public void benchmarkSbeWithVirtualThreads() throws InterruptedException {
         MessageSerializer<Trade> serializer = new TradeSbeSerializer();
@@ -0,0 +1,114 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedArchive;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark measuring what recording a stream costs the live publisher and subscriber.
+ *
+ * The archive is one more subscriber on the stream, so the publisher is back pressured by whichever
+ * of the live subscriber and the archive's disk writes is slower. Compare the same workload with
+ * and without the recording.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArchiveRecordingBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3011;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    
+    @Param({"false", "true"})
+    private boolean recording;
+    
+    private EmbeddedArchive archive;
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private Trade testTrade;
+    
+    private final TradeSbeSerializer publisherSerializer = new TradeSbeSerializer();
+    private final TradeSbeSerializer subscriberSerializer = new TradeSbeSerializer();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        if (recording) {
+            archive = new EmbeddedArchive();
+            archive.startRecording(CHANNEL, STREAM_ID);
+        }
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            subscriberSerializer.deserialize(buffer, offset, length);
+            messagesReceived.incrementAndGet();
+        };
+        subscriber.startPolling(handler);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (archive != null) {
+            archive.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void benchmarkPingLatency() {
+        publisher.publish(testTrade, publisherSerializer);
+        awaitReceived(++messagesSent);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurstThroughput() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        messagesSent += BURST_SIZE;
+        awaitReceived(messagesSent);
+    }
+    
+    private void awaitReceived(long count) {
+        while (messagesReceived.get() < count) {
+            Thread.onSpinWait();
+        }
+    }
+}
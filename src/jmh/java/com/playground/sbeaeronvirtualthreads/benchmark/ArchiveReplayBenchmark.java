@@ -0,0 +1,97 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.ArchiveReplayer;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeView;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedArchive;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.Aeron;
+import io.aeron.logbuffer.FragmentHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark of replay throughput from the embedded archive.
+ *
+ * A recording of RECORDED_TRADES SBE trades is made once per trial and each invocation replays
+ * all of it, either materialising every trade through the serializer or reading it in place with
+ * a {@link TradeView}. Includes the replay request and image setup, as a late joiner would see.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArchiveReplayBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3012;
+    private static final int REPLAY_STREAM_ID = 3013;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int RECORDED_TRADES = 100_000;
+    
+    private EmbeddedArchive archive;
+    private ArchiveReplayer replayer;
+    private long recordingId;
+    private long startPosition;
+    
+    private final TradeSbeSerializer serializer = new TradeSbeSerializer();
+    private final TradeView view = new TradeView();
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        archive = new EmbeddedArchive();
+        replayer = new ArchiveReplayer(archive.client(), ArchiveReplayer.DEFAULT_REPLAY_CHANNEL, REPLAY_STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), 256);
+        
+        long subscriptionId = archive.startRecording(CHANNEL, STREAM_ID);
+        try (AeronPublisher publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE)) {
+            int attempts = 0;
+            while (!publisher.isConnected() && attempts++ < 100) {
+                Thread.sleep(10);
+            }
+            
+            for (int i = 0; i < RECORDED_TRADES; i++) {
+                publisher.publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), serializer);
+            }
+            
+            while ((recordingId = archive.findLatestRecordingId(CHANNEL, STREAM_ID)) == Aeron.NULL_VALUE ||
+                replayer.recordedPosition(recordingId) < publisher.position()) {
+                Thread.sleep(10);
+            }
+        }
+        archive.stopRecording(subscriptionId);
+        startPosition = archive.client().getStartPosition(recordingId);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (archive != null) {
+            archive.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(RECORDED_TRADES)
+    public long benchmarkReplayDeserialize(Blackhole blackhole) {
+        return replayer.replay(recordingId, startPosition, serializer, blackhole::consume);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(RECORDED_TRADES)
+    public long benchmarkReplayView(Blackhole blackhole) {
+        FragmentHandler handler = (buffer, offset, length, header) ->
+            blackhole.consume(view.wrap(buffer, offset, length).tradeId());
+        return replayer.replay(recordingId, startPosition, handler);
+    }
+}
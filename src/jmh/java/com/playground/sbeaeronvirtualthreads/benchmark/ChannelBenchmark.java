@@ -0,0 +1,136 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.ChannelConfig;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.*;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark comparing IPC with UDP unicast over loopback for each trade serializer, to
+ * quantify what the network path costs before it reaches production.
+ *
+ * Both channels use the same MTU and term length so only the transport differs. UDP over
+ * loopback still goes through the kernel network stack and the media driver's sender and
+ * receiver, but not a real NIC, so it is a lower bound on the cross-host cost.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChannelBenchmark {
+    
+    private static final int STREAM_ID = 3008;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    private static final int MTU = 8192;
+    private static final int TERM_LENGTH = 16 * 1024 * 1024;
+    private static final int SOCKET_BUFFER_LENGTH = 2 * 1024 * 1024;
+    
+    public enum Transport {
+        IPC,
+        UDP_LOOPBACK
+    }
+    
+    @Param({"IPC", "UDP_LOOPBACK"})
+    private Transport transport;
+    
+    @Param({"SBE", "Protobuf", "Protobuf-Direct", "JSON", "JSON-Direct"})
+    private String format;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private MessageSerializer<Trade> publisherSerializer;
+    private MessageSerializer<Trade> subscriberSerializer;
+    private Trade testTrade;
+    
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        ChannelConfig channel = transport == Transport.IPC ?
+            ChannelConfig.ipc() :
+            ChannelConfig.udpUnicast("localhost:40125")
+                .socketSndbufLength(SOCKET_BUFFER_LENGTH)
+                .socketRcvbufLength(SOCKET_BUFFER_LENGTH);
+        channel.mtu(MTU).termLength(TERM_LENGTH);
+        
+        subscriber = new AeronSubscriber(channel.build(), STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        publisher = new AeronPublisher(channel, STREAM_ID, BUFFER_SIZE);
+        
+        publisherSerializer = newSerializer(format);
+        subscriberSerializer = newSerializer(format);
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection; UDP takes longer as the driver has to set up the image
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 500) {
+            Thread.sleep(10);
+        }
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            subscriberSerializer.deserialize(buffer, offset, length);
+            messagesReceived.incrementAndGet();
+        };
+        subscriber.startPolling(handler);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void benchmarkPingLatency() {
+        publisher.publish(testTrade, publisherSerializer);
+        awaitReceived(++messagesSent);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurstThroughput() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        messagesSent += BURST_SIZE;
+        awaitReceived(messagesSent);
+    }
+    
+    private void awaitReceived(long count) {
+        while (messagesReceived.get() < count) {
+            Thread.onSpinWait();
+        }
+    }
+    
+    private static MessageSerializer<Trade> newSerializer(String format) {
+        return switch (format) {
+            case "SBE" -> new TradeSbeSerializer();
+            case "Protobuf" -> new TradeProtobufSerializer();
+            case "Protobuf-Direct" -> new TradeProtobufDirectSerializer();
+            case "JSON" -> new TradeJsonSerializer();
+            case "JSON-Direct" -> new TradeJsonDirectSerializer();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+}
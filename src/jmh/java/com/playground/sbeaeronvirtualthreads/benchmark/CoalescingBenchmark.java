@@ -0,0 +1,90 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark of burst throughput for small trades with and without frame coalescing.
+ *
+ * Each invocation publishes a burst, flushes any partly filled frame and waits for the subscriber
+ * to see every trade, so the measurement includes unpacking on the subscriber side.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CoalescingBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3006;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    private static final long FLUSH_DEADLINE_MICROS = 50;
+    
+    @Param({"false", "true"})
+    private boolean coalescing;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private Trade testTrade;
+    
+    private final TradeSbeSerializer publisherSerializer = new TradeSbeSerializer();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        if (coalescing) {
+            publisher.enableCoalescing(FLUSH_DEADLINE_MICROS);
+        }
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID);
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        subscriber.startPolling((buffer, offset, length, header) -> messagesReceived.incrementAndGet());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.stopPolling();
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurst() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        publisher.flushCoalesced();
+        messagesSent += BURST_SIZE;
+        
+        while (messagesReceived.get() < messagesSent) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.ChannelConfig;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.monitoring.ResourceMonitor;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import com.playground.sbeaeronvirtualthreads.util.MediaDriverProfile;
+import io.aeron.Aeron;
+import io.aeron.logbuffer.FragmentHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark running the same SBE trade workload under each media driver profile.
+ *
+ * The subscriber busy spins in every case so differences come from the driver alone. Over IPC
+ * only the conductor is involved; UDP loopback also exercises the sender and receiver threads.
+ * The process CPU use for each iteration is printed in cores, which is where the low footprint
+ * profile pays for its sleeping threads with latency and the low latency one with cores.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DriverProfileBenchmark {
+    
+    private static final int STREAM_ID = 3009;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    
+    public enum Transport {
+        IPC,
+        UDP_LOOPBACK
+    }
+    
+    @Param({"DEFAULT", "LOW_LATENCY", "BALANCED", "LOW_FOOTPRINT"})
+    private MediaDriverProfile profile;
+    
+    @Param({"IPC", "UDP_LOOPBACK"})
+    private Transport transport;
+    
+    private Aeron aeron;
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private Trade testTrade;
+    
+    private final TradeSbeSerializer publisherSerializer = new TradeSbeSerializer();
+    private final TradeSbeSerializer subscriberSerializer = new TradeSbeSerializer();
+    private final ResourceMonitor resourceMonitor = new ResourceMonitor();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    private ResourceMonitor.ResourceSnapshot iterationStart;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start(profile);
+        
+        ChannelConfig channel = transport == Transport.IPC ?
+            ChannelConfig.ipc() :
+            ChannelConfig.udpUnicast("localhost:40126");
+        
+        // The low latency profile may move the driver to /dev/shm, so connect to wherever it runs
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(EmbeddedMediaDriverManager.aeronDirectoryName()));
+        subscriber = new AeronSubscriber(aeron, channel.build(), STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        publisher = new AeronPublisher(aeron, channel.build(), STREAM_ID, BUFFER_SIZE);
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection; the sleeping driver and UDP both take longer to set up the image
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 500) {
+            Thread.sleep(10);
+        }
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            subscriberSerializer.deserialize(buffer, offset, length);
+            messagesReceived.incrementAndGet();
+        };
+        subscriber.startPolling(handler);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (aeron != null) {
+            aeron.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        iterationStart = resourceMonitor.takeSnapshot();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        ResourceMonitor.ResourceSnapshot iterationEnd = resourceMonitor.takeSnapshot();
+        System.out.println("\nCPU Utilisation (" + profile + ", " + transport + "): " +
+            String.format("%.2f", resourceMonitor.getCpuUtilisation(iterationStart, iterationEnd)) + " cores");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void benchmarkPingLatency() {
+        publisher.publish(testTrade, publisherSerializer);
+        awaitReceived(++messagesSent);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurstThroughput() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        messagesSent += BURST_SIZE;
+        awaitReceived(messagesSent);
+    }
+    
+    private void awaitReceived(long count) {
+        while (messagesReceived.get() < count) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.monitoring.ResourceMonitor;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriver;
+import io.aeron.Aeron;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark comparing the SHARED embedded driver with one run by the application's own duty
+ * cycle through agent invokers.
+ *
+ * In SHARED mode the driver and the client conductor each have a thread and the subscriber polls
+ * on a third. In INVOKER mode one thread polls the subscriber and invokes the driver and client
+ * conductor in turn. Threads and RSS added by the setup are printed once per trial and CPU use
+ * per iteration, alongside the ping latency and burst throughput JMH reports.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmbeddedDriverModeBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3010;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    
+    public enum DriverMode {
+        SHARED,
+        INVOKER
+    }
+    
+    @Param({"SHARED", "INVOKER"})
+    private DriverMode driverMode;
+    
+    private EmbeddedMediaDriver mediaDriver;
+    private Aeron aeron;
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private AgentRunner dutyCycleRunner;
+    private Trade testTrade;
+    
+    private final TradeSbeSerializer publisherSerializer = new TradeSbeSerializer();
+    private final TradeSbeSerializer subscriberSerializer = new TradeSbeSerializer();
+    private final ResourceMonitor resourceMonitor = new ResourceMonitor();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    private ResourceMonitor.ResourceSnapshot iterationStart;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        ResourceMonitor.ResourceSnapshot beforeDriver = resourceMonitor.takeSnapshot();
+        
+        mediaDriver = driverMode == DriverMode.INVOKER ?
+            EmbeddedMediaDriver.withAgentInvoker() :
+            new EmbeddedMediaDriver();
+        aeron = mediaDriver.connectClient();
+        
+        publisher = new AeronPublisher(aeron, CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(aeron, CHANNEL, STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            subscriberSerializer.deserialize(buffer, offset, length);
+            messagesReceived.incrementAndGet();
+        };
+        
+        if (driverMode == DriverMode.INVOKER) {
+            // The connection below is only made once something invokes the driver
+            dutyCycleRunner = new AgentRunner(
+                IdleStrategyType.BUSY_SPIN.newIdleStrategy(),
+                Throwable::printStackTrace,
+                null,
+                new CompositeAgent(mediaDriver.asAgent(), subscriber.asAgent(handler)));
+            AgentRunner.startOnThread(dutyCycleRunner);
+        } else {
+            subscriber.startPolling(handler);
+        }
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        ResourceMonitor.ResourceSnapshot afterSetup = resourceMonitor.takeSnapshot();
+        System.out.println("\nDriver footprint (" + driverMode + "): " +
+            (afterSetup.threadCount() - beforeDriver.threadCount()) + " threads, " +
+            (afterSetup.residentSetSize() - beforeDriver.residentSetSize()) / 1024 + " KB RSS");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (dutyCycleRunner != null) {
+            dutyCycleRunner.close();
+        }
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (aeron != null) {
+            aeron.close();
+        }
+        if (mediaDriver != null) {
+            mediaDriver.close();
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        iterationStart = resourceMonitor.takeSnapshot();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        ResourceMonitor.ResourceSnapshot iterationEnd = resourceMonitor.takeSnapshot();
+        System.out.println("\nCPU Utilisation (" + driverMode + "): " +
+            String.format("%.2f", resourceMonitor.getCpuUtilisation(iterationStart, iterationEnd)) + " cores, " +
+            iterationEnd.threadCount() + " threads");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void benchmarkPingLatency() {
+        publisher.publish(testTrade, publisherSerializer);
+        awaitReceived(++messagesSent);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurstThroughput() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        messagesSent += BURST_SIZE;
+        awaitReceived(messagesSent);
+    }
+    
+    private void awaitReceived(long count) {
+        while (messagesReceived.get() < count) {
+            Thread.onSpinWait();
+        }
+    }
+}
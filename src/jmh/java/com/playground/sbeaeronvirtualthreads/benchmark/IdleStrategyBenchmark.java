@@ -0,0 +1,130 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.monitoring.ResourceMonitor;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark matrix of subscriber idle strategy, fragment limit and polling thread type.
+ *
+ * Ping latency shows the wake-up cost of each idle strategy and burst throughput shows the effect
+ * of the fragment limit. The process CPU use for each iteration is printed in cores. It includes
+ * the benchmark thread's own spin wait, so the subscriber's share is the figure minus about one core.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdleStrategyBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3004;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BURST_SIZE = 256;
+    
+    @Param({"BUSY_SPIN", "YIELDING", "BACKOFF", "SLEEPING", "VIRTUAL_THREAD_PARKING"})
+    private IdleStrategyType idleStrategy;
+    
+    @Param({"1", "10", "256"})
+    private int fragmentLimit;
+    
+    @Param({"false", "true"})
+    private boolean useVirtualThreads;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private Trade testTrade;
+    
+    private final TradeSbeSerializer publisherSerializer = new TradeSbeSerializer();
+    private final TradeSbeSerializer subscriberSerializer = new TradeSbeSerializer();
+    private final ResourceMonitor resourceMonitor = new ResourceMonitor();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    private ResourceMonitor.ResourceSnapshot iterationStart;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID, idleStrategy.newIdleStrategy(), fragmentLimit);
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            subscriberSerializer.deserialize(buffer, offset, length);
+            messagesReceived.incrementAndGet();
+        };
+        
+        if (useVirtualThreads) {
+            subscriber.startPollingWithVirtualThread(handler);
+        } else {
+            subscriber.startPolling(handler);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        iterationStart = resourceMonitor.takeSnapshot();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        ResourceMonitor.ResourceSnapshot iterationEnd = resourceMonitor.takeSnapshot();
+        System.out.println("\nCPU Utilisation (" + idleStrategy + ", fragmentLimit=" + fragmentLimit +
+            ", virtualThreads=" + useVirtualThreads + "): " +
+            String.format("%.2f", resourceMonitor.getCpuUtilisation(iterationStart, iterationEnd)) + " cores");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void benchmarkPingLatency() {
+        publisher.publish(testTrade, publisherSerializer);
+        awaitReceived(++messagesSent);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void benchmarkBurstThroughput() {
+        for (int i = 0; i < BURST_SIZE; i++) {
+            publisher.publish(testTrade, publisherSerializer);
+        }
+        messagesSent += BURST_SIZE;
+        awaitReceived(messagesSent);
+    }
+    
+    private void awaitReceived(long count) {
+        while (messagesReceived.get() < count) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark of message throughput from 64B to 1MB payloads, to show where throughput falls off
+ * once messages are fragmented across frames and reassembled by the subscriber.
+ *
+ * Bytes per second is the reported ops/s multiplied by the payload size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LargeMessageBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3007;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MESSAGES_PER_INVOCATION = 16;
+    
+    @Param({"64", "256", "1024", "4096", "16384", "65536", "262144", "1048576"})
+    private int payloadSize;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private UnsafeBuffer payload;
+    
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(
+            CHANNEL, STREAM_ID, IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        
+        payload = new UnsafeBuffer(ByteBuffer.allocateDirect(payloadSize));
+        for (int i = 0; i < payloadSize; i++) {
+            payload.putByte(i, (byte) i);
+        }
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        subscriber.startPolling((buffer, offset, length, header) -> messagesReceived.incrementAndGet());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.stopPolling();
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public void benchmarkPayload() {
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+            publisher.publish(payload, 0, payloadSize);
+        }
+        messagesSent += MESSAGES_PER_INVOCATION;
+        
+        // Wait for the reassembled messages so the measurement covers reassembly as well as publish
+        while (messagesReceived.get() < messagesSent) {
+            Thread.onSpinWait();
+        }
+    }
+}
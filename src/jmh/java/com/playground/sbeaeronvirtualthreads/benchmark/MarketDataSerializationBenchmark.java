@@ -0,0 +1,146 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.serialization.*;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark for Aeron messaging of market data quotes with different serialization formats
+ * and Virtual Threads. Quotes are smaller and far more frequent than trades, so the per-message
+ * codec cost is measured on its own as well as end to end.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MarketDataSerializationBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3002;
+    private static final int BUFFER_SIZE = 8192;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private MarketData testMarketData;
+    
+    private final UnsafeBuffer codecBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final MessageSerializer<MarketData> sbeSerializer = new MarketDataSbeSerializer();
+    private final MessageSerializer<MarketData> protobufSerializer = new MarketDataProtobufSerializer();
+    private final MessageSerializer<MarketData> jsonSerializer = new MarketDataJsonSerializer();
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID);
+        
+        testMarketData = MarketData.create("AAPL", 150.25, 150.27, 500, 300);
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    public void benchmarkSbeSerialization() throws InterruptedException {
+        benchmarkWithSerializer(sbeSerializer, false);
+    }
+    
+    @Benchmark
+    public void benchmarkProtobufSerialization() throws InterruptedException {
+        benchmarkWithSerializer(protobufSerializer, false);
+    }
+    
+    @Benchmark
+    public void benchmarkJsonSerialization() throws InterruptedException {
+        benchmarkWithSerializer(jsonSerializer, false);
+    }
+    
+    @Benchmark
+    public void benchmarkSbeWithVirtualThreads() throws InterruptedException {
+        benchmarkWithSerializer(sbeSerializer, true);
+    }
+    
+    @Benchmark
+    public void benchmarkProtobufWithVirtualThreads() throws InterruptedException {
+        benchmarkWithSerializer(protobufSerializer, true);
+    }
+    
+    @Benchmark
+    public void benchmarkJsonWithVirtualThreads() throws InterruptedException {
+        benchmarkWithSerializer(jsonSerializer, true);
+    }
+    
+    @Benchmark
+    public MarketData benchmarkSbeRoundTrip() {
+        return roundTrip(sbeSerializer);
+    }
+    
+    @Benchmark
+    public MarketData benchmarkProtobufRoundTrip() {
+        return roundTrip(protobufSerializer);
+    }
+    
+    @Benchmark
+    public MarketData benchmarkJsonRoundTrip() {
+        return roundTrip(jsonSerializer);
+    }
+    
+    private MarketData roundTrip(MessageSerializer<MarketData> serializer) {
+        int length = serializer.serialize(testMarketData, codecBuffer, 0);
+        return serializer.deserialize(codecBuffer, 0, length);
+    }
+    
+    private void benchmarkWithSerializer(MessageSerializer<MarketData> serializer, boolean useVirtualThreads) 
+            throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            serializer.deserialize(buffer, offset, length);
+            latch.countDown();
+        };
+        
+        // Start subscriber
+        if (useVirtualThreads) {
+            subscriber.startPollingWithVirtualThread(handler);
+        } else {
+            subscriber.startPolling(handler);
+        }
+        
+        Thread.sleep(10); // Brief wait for subscriber to start
+        
+        // Publish message
+        publisher.publish(testMarketData, serializer);
+        
+        // Wait for message to be received
+        latch.await(5, TimeUnit.SECONDS);
+        
+        // Stop subscriber
+        subscriber.stopPolling();
+    }
+}
@@ -0,0 +1,84 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.MessageTracker;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark of the per-message cost of {@link MessageTracker} over an SBE trade.
+ *
+ * Compares calling the handler directly with calling it through the tracker for new trade ids,
+ * for a duplicate id, and for ids arriving out of order within the window. The header is fixed,
+ * so position tracking always takes the same-frame path; a new position costs one more map put.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageTrackerBenchmark {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int TRADE_ID_OFFSET =
+        MessageHeaderDecoder.ENCODED_LENGTH + TradeMessageDecoder.tradeIdEncodingOffset();
+    
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final Header header = new Header(0, 16);
+    private FragmentHandler handler;
+    private MessageTracker tracker;
+    private int length;
+    private long tradeId;
+    private long bytesHandled;
+    
+    @Setup(Level.Iteration)
+    public void setup() {
+        Trade trade = Trade.create(0L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        length = new TradeSbeSerializer().serialize(trade, buffer, 0);
+        
+        UnsafeBuffer headerBuffer = new UnsafeBuffer(new byte[DataHeaderFlyweight.HEADER_LENGTH]);
+        new DataHeaderFlyweight(headerBuffer).sessionId(1).termId(0).termOffset(0).frameLength(length);
+        header.buffer(headerBuffer);
+        header.offset(0);
+        
+        handler = (msgBuffer, offset, msgLength, msgHeader) -> bytesHandled += msgLength;
+        tracker = new MessageTracker(handler);
+        tradeId = 0;
+    }
+    
+    @Benchmark
+    public void baselineHandler() {
+        buffer.putLong(TRADE_ID_OFFSET, ++tradeId, ByteOrder.LITTLE_ENDIAN);
+        handler.onFragment(buffer, 0, length, header);
+    }
+    
+    @Benchmark
+    public void trackNewTradeId() {
+        buffer.putLong(TRADE_ID_OFFSET, ++tradeId, ByteOrder.LITTLE_ENDIAN);
+        tracker.onFragment(buffer, 0, length, header);
+    }
+    
+    @Benchmark
+    public void trackDuplicateTradeId() {
+        tracker.onFragment(buffer, 0, length, header);
+    }
+    
+    @Benchmark
+    public void trackOutOfOrderTradeId() {
+        // Pairs arrive swapped: 2, 1, 4, 3, ...
+        long next = ++tradeId;
+        buffer.putLong(TRADE_ID_OFFSET, (next & 1) == 1 ? next + 1 : next - 1, ByteOrder.LITTLE_ENDIAN);
+        tracker.onFragment(buffer, 0, length, header);
+    }
+}
@@ -0,0 +1,147 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.aeron.MultiProducerPublisher;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import com.playground.sbeaeronvirtualthreads.util.SharedAeronClient;
+import io.aeron.Aeron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark of many virtual thread producers publishing trades to one stream.
+ *
+ * RING_BUFFER has every producer claim slots in one {@link MultiProducerPublisher} ring buffer
+ * with a single drainer offering to the publication. PUBLICATION_PER_PRODUCER gives each producer
+ * its own publication on a shared client, so the producers contend on the log buffer's tryClaim
+ * instead. Each invocation starts the producers and waits until the subscriber has every message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MultiProducerBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3005;
+    private static final int BUFFER_SIZE = 1024;
+    private static final int RING_BUFFER_CAPACITY = 1024 * 1024;
+    private static final int MESSAGES_PER_INVOCATION = 16_384;
+    
+    public enum PublishMode {
+        RING_BUFFER,
+        PUBLICATION_PER_PRODUCER
+    }
+    
+    @Param({"1", "16", "256", "4096"})
+    private int producers;
+    
+    @Param({"RING_BUFFER", "PUBLICATION_PER_PRODUCER"})
+    private PublishMode mode;
+    
+    private Aeron aeron;
+    private AeronPublisher[] publishers;
+    private TradeSbeSerializer[] serializers;
+    private MultiProducerPublisher multiProducerPublisher;
+    private AeronSubscriber subscriber;
+    private Trade testTrade;
+    
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        aeron = SharedAeronClient.acquire();
+        
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID);
+        
+        int publisherCount = mode == PublishMode.RING_BUFFER ? 1 : producers;
+        publishers = new AeronPublisher[publisherCount];
+        for (int i = 0; i < publisherCount; i++) {
+            publishers[i] = new AeronPublisher(aeron, CHANNEL, STREAM_ID, BUFFER_SIZE);
+        }
+        
+        if (mode == PublishMode.RING_BUFFER) {
+            multiProducerPublisher =
+                new MultiProducerPublisher(publishers[0], RING_BUFFER_CAPACITY, IdleStrategyType.BUSY_SPIN);
+        }
+        
+        serializers = new TradeSbeSerializer[producers];
+        for (int i = 0; i < producers; i++) {
+            serializers[i] = new TradeSbeSerializer();
+        }
+        
+        testTrade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        subscriber.startPolling((buffer, offset, length, header) -> messagesReceived.incrementAndGet());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.stopPolling();
+            subscriber.close();
+        }
+        if (multiProducerPublisher != null) {
+            multiProducerPublisher.close();
+        }
+        if (publishers != null) {
+            for (AeronPublisher publisher : publishers) {
+                publisher.close();
+            }
+        }
+        SharedAeronClient.release();
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public void benchmarkProducers() {
+        int messagesPerProducer = MESSAGES_PER_INVOCATION / producers;
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.submit(() -> produce(producer, messagesPerProducer));
+            }
+        }
+        messagesSent += MESSAGES_PER_INVOCATION;
+        
+        // Wait for the subscriber so the measurement covers delivery as well as publish
+        while (messagesReceived.get() < messagesSent) {
+            Thread.onSpinWait();
+        }
+    }
+    
+    private void produce(int producer, int messageCount) {
+        TradeSbeSerializer serializer = serializers[producer];
+        
+        if (mode == PublishMode.RING_BUFFER) {
+            for (int i = 0; i < messageCount; i++) {
+                multiProducerPublisher.publish(testTrade, serializer);
+            }
+        } else {
+            AeronPublisher publisher = publishers[producer];
+            for (int i = 0; i < messageCount; i++) {
+                publisher.publish(testTrade, serializer);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.model.FixedPointMarketData;
+import com.playground.sbeaeronvirtualthreads.model.FixedPointTrade;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.*;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing SBE encode and decode of double prices against the decimal64
+ * mantissa/exponent layout, for trades and market data quotes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PriceEncodingBenchmark {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int PRICE_EXPONENT = -4;
+    
+    private final UnsafeBuffer tradeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final UnsafeBuffer fixedPointTradeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final UnsafeBuffer marketDataBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final UnsafeBuffer fixedPointMarketDataBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    private final TradeSbeSerializer tradeSerializer = new TradeSbeSerializer();
+    private final FixedPointTradeSbeSerializer fixedPointTradeSerializer = new FixedPointTradeSbeSerializer();
+    private final MarketDataSbeSerializer marketDataSerializer = new MarketDataSbeSerializer();
+    private final FixedPointMarketDataSbeSerializer fixedPointMarketDataSerializer =
+        new FixedPointMarketDataSbeSerializer();
+    
+    private Trade trade;
+    private FixedPointTrade fixedPointTrade;
+    private MarketData marketData;
+    private FixedPointMarketData fixedPointMarketData;
+    
+    private int tradeLength;
+    private int fixedPointTradeLength;
+    private int marketDataLength;
+    private int fixedPointMarketDataLength;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        trade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        fixedPointTrade = FixedPointTrade.from(trade, PRICE_EXPONENT);
+        marketData = MarketData.create("AAPL", 150.25, 150.27, 500, 300);
+        fixedPointMarketData = FixedPointMarketData.from(marketData, PRICE_EXPONENT);
+        
+        tradeLength = tradeSerializer.serialize(trade, tradeBuffer, 0);
+        fixedPointTradeLength = fixedPointTradeSerializer.serialize(fixedPointTrade, fixedPointTradeBuffer, 0);
+        marketDataLength = marketDataSerializer.serialize(marketData, marketDataBuffer, 0);
+        fixedPointMarketDataLength =
+            fixedPointMarketDataSerializer.serialize(fixedPointMarketData, fixedPointMarketDataBuffer, 0);
+    }
+    
+    @Benchmark
+    public int benchmarkDoubleTradeEncode() {
+        return tradeSerializer.serialize(trade, tradeBuffer, 0);
+    }
+    
+    @Benchmark
+    public int benchmarkFixedPointTradeEncode() {
+        return fixedPointTradeSerializer.serialize(fixedPointTrade, fixedPointTradeBuffer, 0);
+    }
+    
+    @Benchmark
+    public Trade benchmarkDoubleTradeDecode() {
+        return tradeSerializer.deserialize(tradeBuffer, 0, tradeLength);
+    }
+    
+    @Benchmark
+    public FixedPointTrade benchmarkFixedPointTradeDecode() {
+        return fixedPointTradeSerializer.deserialize(fixedPointTradeBuffer, 0, fixedPointTradeLength);
+    }
+    
+    @Benchmark
+    public int benchmarkDoubleMarketDataEncode() {
+        return marketDataSerializer.serialize(marketData, marketDataBuffer, 0);
+    }
+    
+    @Benchmark
+    public int benchmarkFixedPointMarketDataEncode() {
+        return fixedPointMarketDataSerializer.serialize(fixedPointMarketData, fixedPointMarketDataBuffer, 0);
+    }
+    
+    @Benchmark
+    public MarketData benchmarkDoubleMarketDataDecode() {
+        return marketDataSerializer.deserialize(marketDataBuffer, 0, marketDataLength);
+    }
+    
+    @Benchmark
+    public FixedPointMarketData benchmarkFixedPointMarketDataDecode() {
+        return fixedPointMarketDataSerializer.deserialize(fixedPointMarketDataBuffer, 0, fixedPointMarketDataLength);
+    }
+}
@@ -0,0 +1,88 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.FixedLengthTradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeView;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing the var-data SBE trade layout with the fixed-length symbol layout for
+ * encode, decode and checking the symbol without a full decode. Encoded sizes are reported by
+ * FixedLengthTradeSbeSerializerTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SymbolLayoutBenchmark {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] SYMBOL = "AAPL".getBytes(StandardCharsets.US_ASCII);
+    
+    private final UnsafeBuffer varDataBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final UnsafeBuffer fixedBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    private final TradeSbeSerializer varDataSerializer = new TradeSbeSerializer();
+    private final FixedLengthTradeSbeSerializer fixedSerializer = new FixedLengthTradeSbeSerializer();
+    private final TradeView tradeView = new TradeView();
+    
+    private Trade trade;
+    private int varDataLength;
+    private int fixedLength;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        trade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        varDataLength = varDataSerializer.serialize(trade, varDataBuffer, 0);
+        fixedLength = fixedSerializer.serialize(trade, fixedBuffer, 0);
+    }
+    
+    @Benchmark
+    public int benchmarkVarDataEncode() {
+        return varDataSerializer.serialize(trade, varDataBuffer, 0);
+    }
+    
+    @Benchmark
+    public int benchmarkFixedEncode() {
+        return fixedSerializer.serialize(trade, fixedBuffer, 0);
+    }
+    
+    @Benchmark
+    public Trade benchmarkVarDataDecode() {
+        return varDataSerializer.deserialize(varDataBuffer, 0, varDataLength);
+    }
+    
+    @Benchmark
+    public Trade benchmarkFixedDecode() {
+        return fixedSerializer.deserialize(fixedBuffer, 0, fixedLength);
+    }
+    
+    @Benchmark
+    public boolean benchmarkVarDataSymbolPeek() {
+        tradeView.wrap(varDataBuffer, 0, varDataLength);
+        if (tradeView.symbolLength() != SYMBOL.length) {
+            return false;
+        }
+        
+        CharSequence symbol = tradeView.symbol();
+        for (int i = 0; i < SYMBOL.length; i++) {
+            if (symbol.charAt(i) != SYMBOL[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Benchmark
+    public boolean benchmarkFixedSymbolPeek() {
+        return FixedLengthTradeSbeSerializer.symbolEquals(fixedBuffer, 0, SYMBOL);
+    }
+}
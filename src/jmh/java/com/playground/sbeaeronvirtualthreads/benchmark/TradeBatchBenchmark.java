@@ -0,0 +1,91 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeBatchSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark comparing trade throughput over Aeron when trades are packed into SBE batch
+ * messages of different sizes. A batch size of 1 is the one-frame-per-trade baseline.
+ *
+ * The channel MTU is raised to 8KB so that a batch of 128 trades still fits in one frame.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TradeBatchBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc?mtu=8192";
+    private static final int STREAM_ID = 3003;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TRADES_PER_INVOCATION = 1024;
+    
+    @Param({"1", "8", "32", "128"})
+    private int batchSize;
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private List<Trade> trades;
+    
+    private final TradeBatchSbeSerializer publisherSerializer = new TradeBatchSbeSerializer();
+    private final TradeBatchSbeSerializer subscriberSerializer = new TradeBatchSbeSerializer();
+    private final AtomicLong tradesReceived = new AtomicLong();
+    private long tradesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws InterruptedException {
+        EmbeddedMediaDriverManager.start();
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID);
+        
+        trades = new ArrayList<>(TRADES_PER_INVOCATION);
+        for (int i = 0; i < TRADES_PER_INVOCATION; i++) {
+            trades.add(Trade.create(i, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"));
+        }
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        subscriber.startPolling((buffer, offset, length, header) ->
+            tradesReceived.addAndGet(subscriberSerializer.decodeBatch(buffer, offset, length, trade -> { })));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.stopPolling();
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TRADES_PER_INVOCATION)
+    public void benchmarkBatchedTrades() {
+        publisher.publishBatch(trades, batchSize, publisherSerializer);
+        tradesSent += TRADES_PER_INVOCATION;
+        
+        // Wait for the subscriber so the measurement covers decode as well as publish
+        while (tradesReceived.get() < tradesSent) {
+            Thread.onSpinWait();
+        }
+    }
+}
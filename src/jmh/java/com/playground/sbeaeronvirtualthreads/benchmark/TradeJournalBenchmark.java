@@ -0,0 +1,140 @@
+package com.playground.sbeaeronvirtualthreads.benchmark;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.journal.TradeJournal;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeView;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH Benchmark of the memory-mapped trade journal.
+ *
+ * Appends copy an encoded trade from a direct buffer, as a subscriber would hand it over, into a
+ * fresh journal each iteration so disk use stays bounded. Replays read a journal of JOURNAL_TRADES
+ * trades in place, either straight into a {@link TradeView} or back into an IPC publication.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TradeJournalBenchmark {
+    
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 3014;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int JOURNAL_TRADES = 1_000_000;
+    
+    private final TradeSbeSerializer serializer = new TradeSbeSerializer();
+    private final TradeView view = new TradeView();
+    private final UnsafeBuffer frame = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private int frameLength;
+    
+    private File replayDirectory;
+    private TradeJournal replayJournal;
+    private File appendDirectory;
+    private TradeJournal appendJournal;
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    private long messagesSent;
+    
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        EmbeddedMediaDriverManager.start();
+        frameLength = serializer.serialize(Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), frame, 0);
+        
+        replayDirectory = Files.createTempDirectory("trade-journal-replay").toFile();
+        replayJournal = new TradeJournal(replayDirectory);
+        for (int i = 0; i < JOURNAL_TRADES; i++) {
+            replayJournal.append(frame, 0, frameLength);
+        }
+        
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID,
+            IdleStrategyType.BUSY_SPIN.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+        
+        // Wait for connection
+        int attempts = 0;
+        while (!subscriber.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> messagesReceived.incrementAndGet();
+        subscriber.startPolling(handler);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (replayJournal != null) {
+            replayJournal.close();
+            IoUtil.delete(replayDirectory, true);
+        }
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Setup(Level.Iteration)
+    public void setupIteration() throws Exception {
+        appendDirectory = Files.createTempDirectory("trade-journal-append").toFile();
+        appendJournal = new TradeJournal(appendDirectory);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        appendJournal.close();
+        IoUtil.delete(appendDirectory, true);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(JOURNAL_TRADES)
+    public long benchmarkAppend() {
+        long position = 0;
+        for (int i = 0; i < JOURNAL_TRADES; i++) {
+            position = appendJournal.append(frame, 0, frameLength);
+        }
+        return position;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(JOURNAL_TRADES)
+    public long benchmarkReplayToHandler(Blackhole blackhole) {
+        return replayJournal.replay(0, (buffer, offset, length, position) ->
+            blackhole.consume(view.wrap(buffer, offset, length).tradeId()));
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(JOURNAL_TRADES)
+    public long benchmarkReplayToPublisher() {
+        long frames = replayJournal.replay(0, publisher);
+        messagesSent += frames;
+        while (messagesReceived.get() < messagesSent) {
+            Thread.onSpinWait();
+        }
+        return frames;
+    }
+}
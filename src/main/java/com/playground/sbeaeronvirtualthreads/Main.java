@@ -2,6 +2,7 @@ package com.playground.sbeaeronvirtualthreads;
 
 import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
 import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.ChannelConfig;
 import com.playground.sbeaeronvirtualthreads.model.Trade;
 import com.playground.sbeaeronvirtualthreads.monitoring.ResourceMonitor;
 import com.playground.sbeaeronvirtualthreads.serialization.*;
@@ -21,13 +22,14 @@ import java.util.concurrent.TimeUnit;
  */
 public class Main {
     private static final Logger log = LoggerFactory.getLogger(Main.class);
-    private static final String CHANNEL = "aeron:ipc";
+    // Override with e.g. -Dsbe.channel=aeron:udp?endpoint=localhost:40123 to run over UDP
+    private static final String CHANNEL = ChannelConfig.channelOrDefault("aeron:ipc");
     private static final int STREAM_ID = 5001;
     private static final int BUFFER_SIZE = 8192;
     private static final int MESSAGE_COUNT = 1000;
     
     public static void main(String[] args) throws Exception {
-        log.info("Starting Aeron Virtual Threads Demo");
+        log.info("Starting Aeron Virtual Threads Demo on channel: {}", CHANNEL);
         
         // Start embedded media driver
         EmbeddedMediaDriver mediaDriver = new EmbeddedMediaDriver();
@@ -147,9 +149,7 @@ public class Main {
                     "COUNTERPARTY_" + (i % 5)
                 );
                 
-                int length = serializer.serialize(trade, publisher.getBuffer(), 0);
-                publisher.publishWithRetry(new byte[0], 0, length);
-                totalBytes += length;
+                totalBytes += publisher.publish(trade, serializer);
             }
             
             long endTime = System.nanoTime();
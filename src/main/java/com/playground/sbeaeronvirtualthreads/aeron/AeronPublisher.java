@@ -1,39 +1,150 @@
 package com.playground.sbeaeronvirtualthreads.aeron;
 
+import com.playground.sbeaeronvirtualthreads.serialization.BatchSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
 import io.aeron.Aeron;
 import io.aeron.Publication;
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.ExpandableRingBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Aeron publisher for sending messages
+ * Aeron publisher for sending messages.
+ *
+ * The retrying publish methods apply the publisher's {@link BackPressurePolicy} when the
+ * publication is back pressured, which defaults to spinning until there is room. With
+ * {@link #enableCoalescing} small messages are packed into shared frames. Messages larger than the
+ * MTU, up to {@link #maxMessageLength()}, are fragmented by Aeron and reassembled by
+ * {@link AeronSubscriber}; the staging buffer grows to fit them.
  */
 public class AeronPublisher implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(AeronPublisher.class);
     
+    public static final int PENDING_QUEUE_INITIAL_CAPACITY = 4096;
+    public static final int PENDING_QUEUE_MAX_CAPACITY = 1024 * 1024;
+    private static final int PARK_AFTER_ATTEMPTS =
+        VirtualThreadIdleStrategy.DEFAULT_MAX_SPINS + VirtualThreadIdleStrategy.DEFAULT_MAX_YIELDS;
+    
     private final Aeron aeron;
+    private final boolean ownsClient;
     private final Publication publication;
-    private final UnsafeBuffer buffer;
+    private final ExpandableDirectByteBuffer buffer;
+    private final BufferClaim bufferClaim = new BufferClaim();
+    
+    private final BackPressurePolicy backPressurePolicy;
+    private final IdleStrategy parkingIdleStrategy;
+    private final ExpandableRingBuffer pendingMessages;
+    private final ExpandableRingBuffer.MessageConsumer pendingOfferer =
+        (queuedBuffer, queuedOffset, queuedLength, headOffset) -> offerOnce(queuedBuffer, queuedOffset, queuedLength);
+    
+    private final AtomicLong backPressureEvents = new AtomicLong(0);
+    private final AtomicLong parkedPublishes = new AtomicLong(0);
+    private final AtomicLong droppedMessages = new AtomicLong(0);
+    private final AtomicLong failedPublishes = new AtomicLong(0);
+    
+    private UnsafeBuffer coalescingBuffer;
+    private long coalescingDeadlineNanos;
+    private int coalescedLength;
+    private int coalescedCount;
+    private long coalescedFrameStartNanos;
+    private final AtomicLong coalescedFrames = new AtomicLong(0);
+    private final AtomicLong coalescedMessages = new AtomicLong(0);
     
     public AeronPublisher(String channel, int streamId, int bufferSize) {
-        this.aeron = Aeron.connect();
+        this(channel, streamId, bufferSize, BackPressurePolicy.SPIN);
+    }
+    
+    public AeronPublisher(ChannelConfig channel, int streamId, int bufferSize) {
+        this(channel.build(), streamId, bufferSize);
+    }
+    
+    public AeronPublisher(String channel, int streamId, int bufferSize, BackPressurePolicy backPressurePolicy) {
+        this(Aeron.connect(), true, channel, streamId, bufferSize, backPressurePolicy);
+    }
+    
+    /**
+     * Create a publisher on an existing client, such as {@code SharedAeronClient.acquire()}.
+     * The client is not closed with the publisher.
+     */
+    public AeronPublisher(Aeron aeron, String channel, int streamId, int bufferSize) {
+        this(aeron, channel, streamId, bufferSize, BackPressurePolicy.SPIN);
+    }
+    
+    public AeronPublisher(
+        Aeron aeron, String channel, int streamId, int bufferSize, BackPressurePolicy backPressurePolicy) {
+        this(aeron, false, channel, streamId, bufferSize, backPressurePolicy);
+    }
+    
+    private AeronPublisher(
+        Aeron aeron, boolean ownsClient, String channel, int streamId, int bufferSize,
+        BackPressurePolicy backPressurePolicy) {
+        this.aeron = aeron;
+        this.ownsClient = ownsClient;
         this.publication = aeron.addPublication(channel, streamId);
-        this.buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(bufferSize));
+        this.buffer = new ExpandableDirectByteBuffer(bufferSize);
+        this.backPressurePolicy = backPressurePolicy;
+        this.parkingIdleStrategy = backPressurePolicy == BackPressurePolicy.BOUNDED_SPIN_THEN_PARK ?
+            new VirtualThreadIdleStrategy() : null;
+        this.pendingMessages = backPressurePolicy == BackPressurePolicy.DROP_OLDEST ?
+            new ExpandableRingBuffer(PENDING_QUEUE_INITIAL_CAPACITY, PENDING_QUEUE_MAX_CAPACITY, true) : null;
+        
+        log.info("AeronPublisher created on channel: {} streamId: {} backPressurePolicy: {}",
+            channel, streamId, backPressurePolicy);
+    }
+    
+    /**
+     * Pack messages published with {@link #publish(Object, MessageSerializer)} into shared frames
+     * of up to the max payload length, each message prefixed with its length. A frame is sent when
+     * the next message does not fit or when its first message is older than the flush deadline.
+     * The deadline is checked on every publish, so it only holds while publishing pauses if
+     * something keeps checking it on the publishing thread: run {@link #asFlushAgent()} in that
+     * thread's duty cycle or call {@link #flushCoalescedIfDue()} when idle. Subscribers unpack
+     * frames with {@link CoalescedFrameHandler}, which {@link AeronSubscriber} applies by default.
+     * Not supported with {@link BackPressurePolicy#DROP_OLDEST}, whose queue cannot keep the frame marker.
+     * @param flushDeadlineMicros the longest a message waits in an unsent frame
+     * @return this publisher for fluent use
+     */
+    public AeronPublisher enableCoalescing(long flushDeadlineMicros) {
+        if (backPressurePolicy == BackPressurePolicy.DROP_OLDEST) {
+            throw new IllegalStateException("Coalescing is not supported with " + backPressurePolicy);
+        }
         
-        log.info("AeronPublisher created on channel: {} streamId: {}", channel, streamId);
+        coalescingBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(publication.maxPayloadLength()));
+        coalescingDeadlineNanos = TimeUnit.MICROSECONDS.toNanos(flushDeadlineMicros);
+        
+        log.info("Coalescing enabled with frame length: {} flush deadline: {}µs",
+            coalescingBuffer.capacity(), flushDeadlineMicros);
+        return this;
     }
     
     /**
-     * Publish a message
+     * Publish a message with a single offer, without applying the back pressure policy. Any open
+     * coalesced frame and queued messages are offered first the same way, so the message never
+     * overtakes them.
      * @param data the data to publish
      * @param offset the offset in the data
      * @param length the length of the data
-     * @return true if published successfully, false otherwise
+     * @return true if published successfully, false otherwise, including when an earlier frame or
+     *         queued messages could not be sent and were kept
      */
     public boolean publish(byte[] data, int offset, int length) {
+        if (!tryFlushCoalesced() || !flushPending()) {
+            return false;
+        }
+        
         buffer.putBytes(0, data, offset, length);
         long result = publication.offer(buffer, 0, length);
         
@@ -41,6 +152,7 @@ public class AeronPublisher implements AutoCloseable {
             return true;
         } else if (result == Publication.BACK_PRESSURED) {
             log.debug("Back pressured");
+            backPressureEvents.incrementAndGet();
             return false;
         } else if (result == Publication.NOT_CONNECTED) {
             log.warn("Not connected");
@@ -60,40 +172,317 @@ public class AeronPublisher implements AutoCloseable {
     }
     
     /**
-     * Publish with retry on back pressure
+     * Publish, applying the back pressure policy
      */
     public void publishWithRetry(byte[] data, int offset, int length) {
         buffer.putBytes(0, data, offset, length);
+        offer(buffer, 0, length);
+    }
+    
+    /**
+     * Publish data already in the buffer, applying the back pressure policy
+     */
+    public void publish(int length) {
+        offer(buffer, 0, length);
+    }
+    
+    /**
+     * Publish data from any buffer, applying the back pressure policy, without copying it to the
+     * staging buffer unless it has to be queued
+     */
+    public void publish(DirectBuffer source, int offset, int length) {
+        offer(source, offset, length);
+    }
+    
+    /**
+     * Offer once without applying the back pressure policy. Any open coalesced frame and queued
+     * messages are offered first the same way, so the message never overtakes them. Having no
+     * subscriber is treated like back pressure, so callers can hold the message until one connects.
+     * @return true if published, false if back pressured or not connected, including when an
+     *         earlier frame or queued messages could not be sent and were kept
+     * @throws RuntimeException if the publication is closed or has reached its max position
+     */
+    public boolean tryPublish(DirectBuffer source, int offset, int length) {
+        return tryFlushCoalesced() && flushPending() && offerOnce(source, offset, length);
+    }
+    
+    /**
+     * Encode a message straight into the log buffer with a single {@link Publication#tryClaim},
+     * without applying the back pressure policy or coalescing it. Ordering and results are as for
+     * {@link #tryPublish(DirectBuffer, int, int)}, and nothing is encoded if the claim fails.
+     * Falls back to the staging buffer when the serializer cannot report its encoded length up
+     * front or the message is too large for a single claim.
+     * @param message the message to publish
+     * @param serializer the serializer used to encode the message
+     * @return true if published, false if back pressured or not connected
+     * @throws RuntimeException if the publication is closed or has reached its max position
+     */
+    public <T> boolean tryPublish(T message, MessageSerializer<T> serializer) {
+        if (!tryFlushCoalesced() || !flushPending()) {
+            return false;
+        }
+        
+        int length = serializer.encodedLength(message);
+        if (length < 0 || length > publication.maxPayloadLength()) {
+            length = serializer.serialize(message, buffer, 0);
+            return offerOnce(buffer, 0, length);
+        }
+        
+        long result;
+        while ((result = publication.tryClaim(length, bufferClaim)) == Publication.ADMIN_ACTION) {
+            // Retry straight away
+        }
+        
+        if (!accepted(result)) {
+            return false;
+        }
+        
+        try {
+            serializer.serialize(message, bufferClaim.buffer(), bufferClaim.offset());
+            bufferClaim.commit();
+        } catch (RuntimeException e) {
+            bufferClaim.abort();
+            throw e;
+        }
         
+        return true;
+    }
+    
+    private boolean offerOnce(DirectBuffer source, int offset, int length) {
         long result;
-        while ((result = publication.offer(buffer, 0, length)) < 0) {
-            if (result == Publication.BACK_PRESSURED) {
-                Thread.onSpinWait();
-            } else if (result == Publication.NOT_CONNECTED || 
-                       result == Publication.CLOSED || 
-                       result == Publication.MAX_POSITION_EXCEEDED) {
-                throw new RuntimeException("Publication failed with result: " + result);
+        while ((result = publication.offer(source, offset, length)) == Publication.ADMIN_ACTION) {
+            // Retry straight away
+        }
+        
+        return accepted(result);
+    }
+    
+    /**
+     * @return true if the offer or claim succeeded, false if back pressured or not connected
+     * @throws RuntimeException for any other failure
+     */
+    private static boolean accepted(long result) {
+        if (result > 0) {
+            return true;
+        } else if (result == Publication.BACK_PRESSURED || result == Publication.NOT_CONNECTED) {
+            return false;
+        }
+        throw new RuntimeException("Publication failed with result: " + result);
+    }
+    
+    /**
+     * Publish a message by encoding it straight into the log buffer with {@link Publication#tryClaim},
+     * applying the back pressure policy. Falls back to the staging buffer when the serializer cannot
+     * report its encoded length up front, the message is too large for a single claim, or earlier
+     * messages are still queued. When coalescing, the message is added to the current frame instead.
+     * @param message the message to publish
+     * @param serializer the serializer used to encode the message
+     * @return the number of bytes published or queued, or 0 if the message was dropped
+     */
+    public <T> int publish(T message, MessageSerializer<T> serializer) {
+        int length = serializer.encodedLength(message);
+        if (coalescingBuffer != null) {
+            if (CoalescedFrameHandler.encodedLength(length) <= coalescingBuffer.capacity()) {
+                return coalesce(message, serializer, length);
             }
+            flushCoalesced();
+        }
+        
+        if (length < 0 || length > publication.maxPayloadLength() || !flushPending()) {
+            length = serializer.serialize(message, buffer, 0);
+            return offer(buffer, 0, length) ? length : 0;
         }
+        
+        if (!claim(length)) {
+            if (pendingMessages == null) {
+                return 0;
+            }
+            length = serializer.serialize(message, buffer, 0);
+            return enqueue(buffer, 0, length) ? length : 0;
+        }
+        
+        try {
+            serializer.serialize(message, bufferClaim.buffer(), bufferClaim.offset());
+            bufferClaim.commit();
+        } catch (RuntimeException e) {
+            bufferClaim.abort();
+            throw e;
+        }
+        
+        return length;
     }
     
     /**
-     * Publish data already in the buffer with retry on back pressure
+     * Publish messages as batch messages, packing as many into each frame as fit within the
+     * publication's max payload length, with at most maxBatchSize messages per frame. The back
+     * pressure policy applies to each frame.
+     * @param messages the messages to publish
+     * @param maxBatchSize the largest number of messages to put in one frame, at least one
+     * @param serializer the batch serializer, e.g. {@code TradeBatchSbeSerializer}
+     * @return the number of frames published, queued or dropped
      */
-    public void publish(int length) {
-        long result;
-        while ((result = publication.offer(buffer, 0, length)) < 0) {
-            if (result == Publication.BACK_PRESSURED) {
-                Thread.onSpinWait();
-            } else if (result == Publication.NOT_CONNECTED || 
-                       result == Publication.CLOSED || 
-                       result == Publication.MAX_POSITION_EXCEEDED) {
-                throw new RuntimeException("Publication failed with result: " + result);
+    public <T> int publishBatch(List<T> messages, int maxBatchSize, BatchSerializer<T> serializer) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1: " + maxBatchSize);
+        }
+        
+        flushCoalesced();
+        
+        int maxLength = publication.maxPayloadLength();
+        int frames = 0;
+        
+        int fromIndex = 0;
+        while (fromIndex < messages.size()) {
+            int count = serializer.batchSize(messages, fromIndex, maxBatchSize, maxLength);
+            int length = serializer.encodedLength(messages, fromIndex, count);
+            
+            if (length > maxLength || !flushPending()) {
+                length = serializer.serializeBatch(messages, fromIndex, count, buffer, 0);
+                offer(buffer, 0, length);
+            } else if (!claim(length)) {
+                if (pendingMessages != null) {
+                    length = serializer.serializeBatch(messages, fromIndex, count, buffer, 0);
+                    enqueue(buffer, 0, length);
+                }
+            } else {
+                try {
+                    serializer.serializeBatch(messages, fromIndex, count, bufferClaim.buffer(), bufferClaim.offset());
+                    bufferClaim.commit();
+                } catch (RuntimeException e) {
+                    bufferClaim.abort();
+                    throw e;
+                }
             }
+            
+            fromIndex += count;
+            frames++;
+        }
+        
+        return frames;
+    }
+    
+    /**
+     * The largest message that fits in a single frame, and so can be claimed and is never fragmented
+     */
+    public int maxPayloadLength() {
+        return publication.maxPayloadLength();
+    }
+    
+    /**
+     * Offer messages queued under {@link BackPressurePolicy#DROP_OLDEST} without waiting.
+     * Queued messages are also flushed ahead of every later publish.
+     * @return true if nothing is left queued
+     */
+    public boolean flushPending() {
+        if (pendingMessages == null || pendingMessages.isEmpty()) {
+            return true;
         }
+        
+        pendingMessages.consume(pendingOfferer, Integer.MAX_VALUE);
+        return pendingMessages.isEmpty();
     }
     
-    public UnsafeBuffer getBuffer() {
+    /**
+     * Send the current coalesced frame, applying the back pressure policy
+     * @return the number of messages sent, or 0 if there was no frame or the policy dropped it
+     */
+    public int flushCoalesced() {
+        int count = coalescedCount;
+        if (count == 0) {
+            return 0;
+        }
+        
+        if (claim(coalescedLength)) {
+            commitCoalesced();
+            return count;
+        }
+        
+        // The policy counted the frame as one dropped message
+        droppedMessages.addAndGet(count - 1);
+        coalescedLength = 0;
+        coalescedCount = 0;
+        return 0;
+    }
+    
+    /**
+     * Send the current coalesced frame with a single claim, without applying the back pressure policy
+     * @return true if no frame is left open, false if the publication could not take it and it was kept
+     */
+    private boolean tryFlushCoalesced() {
+        if (coalescedCount == 0) {
+            return true;
+        }
+        
+        long result;
+        while ((result = publication.tryClaim(coalescedLength, bufferClaim)) == Publication.ADMIN_ACTION) {
+            // Retry straight away
+        }
+        
+        if (!accepted(result)) {
+            return false;
+        }
+        
+        commitCoalesced();
+        return true;
+    }
+    
+    /**
+     * Copy the coalesced frame into the claimed space and commit it
+     */
+    private void commitCoalesced() {
+        bufferClaim.reservedValue(CoalescedFrameHandler.RESERVED_VALUE);
+        bufferClaim.buffer().putBytes(bufferClaim.offset(), coalescingBuffer, 0, coalescedLength);
+        bufferClaim.commit();
+        coalescedFrames.incrementAndGet();
+        coalescedMessages.addAndGet(coalescedCount);
+        
+        coalescedLength = 0;
+        coalescedCount = 0;
+    }
+    
+    /**
+     * Send the current coalesced frame if its first message has reached the flush deadline
+     * @return the number of messages sent, or 0 if none were due or the policy dropped the frame
+     */
+    public int flushCoalescedIfDue() {
+        if (coalescedCount > 0 && System.nanoTime() - coalescedFrameStartNanos >= coalescingDeadlineNanos) {
+            return flushCoalesced();
+        }
+        return 0;
+    }
+    
+    /**
+     * Wrap {@link #flushCoalescedIfDue()} as an agent, e.g. to combine in a
+     * {@link org.agrona.concurrent.CompositeAgent} with the agent that publishes, so a partly
+     * filled frame is sent on time when publishing stops. Not thread safe, like the publisher, so
+     * it must run on the publishing thread.
+     */
+    public Agent asFlushAgent() {
+        return new Agent() {
+            @Override
+            public int doWork() {
+                return flushCoalescedIfDue();
+            }
+            
+            @Override
+            public String roleName() {
+                return "aeron-publisher-flush-" + publication.streamId();
+            }
+        };
+    }
+    
+    /**
+     * The largest message the publication accepts, fragmenting it across frames if needed
+     */
+    public int maxMessageLength() {
+        return publication.maxMessageLength();
+    }
+    
+    /**
+     * Staging buffer for encoding messages before {@link #publish(int)}. It starts at the buffer
+     * size given to the constructor and grows when a larger message is written.
+     */
+    public MutableDirectBuffer getBuffer() {
         return buffer;
     }
     
@@ -101,10 +490,216 @@ public class AeronPublisher implements AutoCloseable {
         return publication.isConnected();
     }
     
+    /**
+     * Position of the publication after the last message sent, e.g. to wait for a recording to catch up
+     */
+    public long position() {
+        return publication.position();
+    }
+    
+    public BackPressurePolicy getBackPressurePolicy() {
+        return backPressurePolicy;
+    }
+    
+    /**
+     * Messages that met back pressure at least once, whatever the policy then did
+     */
+    public long getBackPressureEvents() {
+        return backPressureEvents.get();
+    }
+    
+    /**
+     * Messages that waited long enough to park under {@link BackPressurePolicy#BOUNDED_SPIN_THEN_PARK}
+     */
+    public long getParkedPublishes() {
+        return parkedPublishes.get();
+    }
+    
+    /**
+     * Messages dropped under {@link BackPressurePolicy#DROP_NEWEST} or {@link BackPressurePolicy#DROP_OLDEST}
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+    
+    /**
+     * Publishes rejected with a {@link BackPressureException} under {@link BackPressurePolicy#FAIL_FAST}
+     */
+    public long getFailedPublishes() {
+        return failedPublishes.get();
+    }
+    
+    /**
+     * Bytes queued under {@link BackPressurePolicy#DROP_OLDEST} and not yet published
+     */
+    public int getPendingBytes() {
+        return pendingMessages == null ? 0 : pendingMessages.size();
+    }
+    
+    public long getCoalescedFrames() {
+        return coalescedFrames.get();
+    }
+    
+    public long getCoalescedMessages() {
+        return coalescedMessages.get();
+    }
+    
+    /**
+     * Add a message to the current coalesced frame, sending the frame first if the message does
+     * not fit and afterwards if the frame is full or due
+     */
+    private <T> int coalesce(T message, MessageSerializer<T> serializer, int length) {
+        if (length < 0) {
+            length = serializer.serialize(message, buffer, 0);
+            int required = CoalescedFrameHandler.encodedLength(length);
+            if (required > coalescingBuffer.capacity()) {
+                flushCoalesced();
+                return offer(buffer, 0, length) ? length : 0;
+            }
+            if (coalescedLength + required > coalescingBuffer.capacity()) {
+                flushCoalesced();
+            }
+            coalescingBuffer.putBytes(messageOffset(), buffer, 0, length);
+        } else {
+            if (coalescedLength + CoalescedFrameHandler.encodedLength(length) > coalescingBuffer.capacity()) {
+                flushCoalesced();
+            }
+            serializer.serialize(message, coalescingBuffer, messageOffset());
+        }
+        
+        coalescingBuffer.putInt(coalescedLength, length, ByteOrder.LITTLE_ENDIAN);
+        coalescedLength += CoalescedFrameHandler.encodedLength(length);
+        
+        long now = System.nanoTime();
+        if (coalescedCount++ == 0) {
+            coalescedFrameStartNanos = now;
+        }
+        
+        if (coalescedLength + CoalescedFrameHandler.LENGTH_PREFIX_LENGTH >= coalescingBuffer.capacity() ||
+            now - coalescedFrameStartNanos >= coalescingDeadlineNanos) {
+            flushCoalesced();
+        }
+        
+        return length;
+    }
+    
+    private int messageOffset() {
+        return coalescedLength + CoalescedFrameHandler.LENGTH_PREFIX_LENGTH;
+    }
+    
+    /**
+     * Offer behind any queued messages, applying the back pressure policy
+     * @return true if the message was published or queued, false if it was dropped
+     */
+    private boolean offer(DirectBuffer source, int offset, int length) {
+        flushCoalesced();
+        if (!flushPending()) {
+            return enqueue(source, offset, length);
+        }
+        
+        long result;
+        int attempts = 0;
+        while ((result = publication.offer(source, offset, length)) < 0) {
+            if (!shouldRetry(result, attempts++)) {
+                return pendingMessages != null && enqueue(source, offset, length);
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Claim space in the log buffer, applying the back pressure policy
+     * @return true if claimed, false if the policy gave up on the message
+     */
+    private boolean claim(int length) {
+        long result;
+        int attempts = 0;
+        while ((result = publication.tryClaim(length, bufferClaim)) < 0) {
+            if (!shouldRetry(result, attempts++)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Apply the back pressure policy to a failed offer or claim
+     * @param result the failed result
+     * @param attempt the number of earlier failed attempts for this message
+     * @return true to try again, false to give up on the message
+     */
+    private boolean shouldRetry(long result, int attempt) {
+        if (result == Publication.ADMIN_ACTION) {
+            return true;
+        }
+        if (result != Publication.BACK_PRESSURED) {
+            throw new RuntimeException("Publication failed with result: " + result);
+        }
+        if (attempt == 0) {
+            backPressureEvents.incrementAndGet();
+        }
+        
+        switch (backPressurePolicy) {
+            case SPIN -> Thread.onSpinWait();
+            case BOUNDED_SPIN_THEN_PARK -> {
+                if (attempt == 0) {
+                    parkingIdleStrategy.reset();
+                } else if (attempt == PARK_AFTER_ATTEMPTS) {
+                    parkedPublishes.incrementAndGet();
+                }
+                parkingIdleStrategy.idle(0);
+            }
+            case DROP_NEWEST -> {
+                droppedMessages.incrementAndGet();
+                return false;
+            }
+            case DROP_OLDEST -> {
+                return false;
+            }
+            case FAIL_FAST -> {
+                failedPublishes.incrementAndGet();
+                throw new BackPressureException("Publication back pressured on stream " + publication.streamId());
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Append to the pending queue, dropping the oldest queued messages until there is room
+     * @return false if the message is larger than the whole queue and was dropped
+     */
+    private boolean enqueue(DirectBuffer source, int offset, int length) {
+        while (!pendingMessages.append(source, offset, length)) {
+            droppedMessages.incrementAndGet();
+            if (pendingMessages.isEmpty()) {
+                return false;
+            }
+            pendingMessages.consume((queuedBuffer, queuedOffset, queuedLength, headOffset) -> true, 1);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Close the publication, first making one attempt to send an open coalesced frame. The frame
+     * is dropped rather than waited for if the publication cannot take it.
+     */
     @Override
     public void close() {
-        publication.close();
-        aeron.close();
-        log.info("AeronPublisher closed");
+        try {
+            if (!tryFlushCoalesced()) {
+                log.warn("Dropped coalesced frame of {} messages on close", coalescedCount);
+                droppedMessages.addAndGet(coalescedCount);
+            }
+        } finally {
+            publication.close();
+            if (ownsClient) {
+                aeron.close();
+            }
+            log.info("AeronPublisher closed");
+        }
     }
 }
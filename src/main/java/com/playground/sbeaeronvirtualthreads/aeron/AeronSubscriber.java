@@ -1,10 +1,13 @@
 package com.playground.sbeaeronvirtualthreads.aeron;
 
 import io.aeron.Aeron;
+import io.aeron.ControlledFragmentAssembler;
+import io.aeron.FragmentAssembler;
 import io.aeron.Subscription;
+import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.IdleStrategy;
-import org.agrona.concurrent.SleepingIdleStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,22 +15,75 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Aeron subscriber for receiving messages
+ * Aeron subscriber for receiving messages.
+ *
+ * Messages larger than the MTU are reassembled with a {@link FragmentAssembler} and frames coalesced
+ * by a publisher are unpacked before the fragment handler is called, so the handler always sees
+ * one whole message at a time.
+ *
+ * The controlled polling methods take a {@link ControlledFragmentHandler}, which can return
+ * {@code ABORT} to leave a message in the log and have it delivered again on the next poll, for
+ * example while its downstream queue is full, or {@code BREAK} to end a poll after a batch.
  */
 public class AeronSubscriber implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(AeronSubscriber.class);
     
+    public static final int DEFAULT_FRAGMENT_LIMIT = 10;
+    
     private final Aeron aeron;
+    private final boolean ownsClient;
     private final Subscription subscription;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicLong messagesReceived = new AtomicLong(0);
+    private final IdleStrategy idleStrategy;
+    private final int fragmentLimit;
+    private FragmentHandler pollOnceDelegate;
+    private final FragmentHandler pollOnceHandler = countedMessages(
+        (buffer, offset, length, header) -> pollOnceDelegate.onFragment(buffer, offset, length, header));
+    private ControlledFragmentHandler controlledPollOnceDelegate;
+    private final ControlledFragmentHandler controlledPollOnceHandler = countedMessages(
+        (buffer, offset, length, header) -> controlledPollOnceDelegate.onFragment(buffer, offset, length, header));
     private Thread pollingThread;
     
     public AeronSubscriber(String channel, int streamId) {
-        this.aeron = Aeron.connect();
+        this(channel, streamId, IdleStrategyType.SLEEPING.newIdleStrategy(), DEFAULT_FRAGMENT_LIMIT);
+    }
+    
+    public AeronSubscriber(ChannelConfig channel, int streamId) {
+        this(channel.build(), streamId);
+    }
+    
+    /**
+     * @param idleStrategy how the polling thread waits when a poll finds no fragments,
+     *                     e.g. {@link IdleStrategyType#newIdleStrategy()}
+     * @param fragmentLimit the maximum number of fragments handled per poll
+     */
+    public AeronSubscriber(String channel, int streamId, IdleStrategy idleStrategy, int fragmentLimit) {
+        this(Aeron.connect(), true, channel, streamId, idleStrategy, fragmentLimit);
+    }
+    
+    /**
+     * Create a subscriber on an existing client, such as {@code SharedAeronClient.acquire()}.
+     * The client is not closed with the subscriber.
+     */
+    public AeronSubscriber(Aeron aeron, String channel, int streamId) {
+        this(aeron, channel, streamId, IdleStrategyType.SLEEPING.newIdleStrategy(), DEFAULT_FRAGMENT_LIMIT);
+    }
+    
+    public AeronSubscriber(Aeron aeron, String channel, int streamId, IdleStrategy idleStrategy, int fragmentLimit) {
+        this(aeron, false, channel, streamId, idleStrategy, fragmentLimit);
+    }
+    
+    private AeronSubscriber(
+        Aeron aeron, boolean ownsClient, String channel, int streamId, IdleStrategy idleStrategy, int fragmentLimit) {
+        this.aeron = aeron;
+        this.ownsClient = ownsClient;
         this.subscription = aeron.addSubscription(channel, streamId);
+        this.idleStrategy = idleStrategy;
+        this.fragmentLimit = fragmentLimit;
         
-        log.info("AeronSubscriber created on channel: {} streamId: {}", channel, streamId);
+        log.info("AeronSubscriber created on channel: {} streamId: {} idleStrategy: {} fragmentLimit: {}",
+            channel, streamId, idleStrategy.alias(), fragmentLimit);
     }
     
     /**
@@ -35,15 +91,8 @@ public class AeronSubscriber implements AutoCloseable {
      */
     public void startPolling(FragmentHandler fragmentHandler) {
         if (running.compareAndSet(false, true)) {
-            pollingThread = Thread.ofPlatform().name("aeron-subscriber").start(() -> {
-                IdleStrategy idleStrategy = new SleepingIdleStrategy(1000);
-                
-                while (running.get()) {
-                    int fragmentsRead = subscription.poll(fragmentHandler, 10);
-                    messagesReceived.addAndGet(fragmentsRead);
-                    idleStrategy.idle(fragmentsRead);
-                }
-            });
+            pollingThread = Thread.ofPlatform().name("aeron-subscriber")
+                .start(() -> pollUntilStopped(countedMessages(fragmentHandler)));
             
             log.info("Started polling thread");
         }
@@ -54,27 +103,74 @@ public class AeronSubscriber implements AutoCloseable {
      */
     public void startPollingWithVirtualThread(FragmentHandler fragmentHandler) {
         if (running.compareAndSet(false, true)) {
-            pollingThread = Thread.ofVirtual().name("aeron-subscriber-virtual").start(() -> {
-                IdleStrategy idleStrategy = new SleepingIdleStrategy(1000);
-                
-                while (running.get()) {
-                    int fragmentsRead = subscription.poll(fragmentHandler, 10);
-                    messagesReceived.addAndGet(fragmentsRead);
-                    idleStrategy.idle(fragmentsRead);
-                }
-            });
+            pollingThread = Thread.ofVirtual().name("aeron-subscriber-virtual")
+                .start(() -> pollUntilStopped(countedMessages(fragmentHandler)));
             
             log.info("Started polling virtual thread");
         }
     }
     
     /**
-     * Poll once synchronously
+     * Start controlled polling in a background thread
+     */
+    public void startControlledPolling(ControlledFragmentHandler fragmentHandler) {
+        if (running.compareAndSet(false, true)) {
+            pollingThread = Thread.ofPlatform().name("aeron-subscriber")
+                .start(() -> controlledPollUntilStopped(countedMessages(fragmentHandler)));
+            
+            log.info("Started controlled polling thread");
+        }
+    }
+    
+    /**
+     * Start controlled polling with virtual thread
+     */
+    public void startControlledPollingWithVirtualThread(ControlledFragmentHandler fragmentHandler) {
+        if (running.compareAndSet(false, true)) {
+            pollingThread = Thread.ofVirtual().name("aeron-subscriber-virtual")
+                .start(() -> controlledPollUntilStopped(countedMessages(fragmentHandler)));
+            
+            log.info("Started controlled polling virtual thread");
+        }
+    }
+    
+    /**
+     * Wrap this subscription as an agent so it can share a duty-cycle thread with other
+     * subscriptions, e.g. on a {@link SubscriptionAgentPool}. Do not also start a polling thread.
+     */
+    public Agent asAgent(FragmentHandler fragmentHandler) {
+        String roleName = "aeron-subscriber-" + subscription.streamId();
+        FragmentHandler countingHandler = countedMessages(fragmentHandler);
+        
+        return new Agent() {
+            @Override
+            public int doWork() {
+                return subscription.poll(countingHandler, fragmentLimit);
+            }
+            
+            @Override
+            public String roleName() {
+                return roleName;
+            }
+        };
+    }
+    
+    /**
+     * Poll once synchronously. The handler may change between calls; reassembly of a message
+     * split across polls carries on into the new handler.
      */
     public int pollOnce(FragmentHandler fragmentHandler, int fragmentLimit) {
-        int fragmentsRead = subscription.poll(fragmentHandler, fragmentLimit);
-        messagesReceived.addAndGet(fragmentsRead);
-        return fragmentsRead;
+        pollOnceDelegate = fragmentHandler;
+        return subscription.poll(pollOnceHandler, fragmentLimit);
+    }
+    
+    /**
+     * Controlled poll once synchronously. As with {@link #pollOnce}, the handler may change between calls.
+     * @return the number of fragments consumed, which excludes any that were aborted
+     */
+    public int controlledPollOnce(ControlledFragmentHandler fragmentHandler, int fragmentLimit) {
+        controlledPollOnceDelegate = fragmentHandler;
+        return subscription.controlledPoll(controlledPollOnceHandler, fragmentLimit);
     }
     
     /**
@@ -93,6 +189,10 @@ public class AeronSubscriber implements AutoCloseable {
         }
     }
     
+    /**
+     * Whole messages handed to the fragment handler, counting each message of a coalesced frame and
+     * each reassembled message once. Aborted messages are counted when they are finally consumed.
+     */
     public long getMessagesReceived() {
         return messagesReceived.get();
     }
@@ -109,11 +209,64 @@ public class AeronSubscriber implements AutoCloseable {
         return subscription.imageCount() > 0;
     }
     
+    public int getFragmentLimit() {
+        return fragmentLimit;
+    }
+    
+    /**
+     * Reassemble fragmented messages, then unpack coalesced frames. Unfragmented messages pass
+     * through the assembler without being copied.
+     */
+    static FragmentHandler wholeMessages(FragmentHandler fragmentHandler) {
+        return new FragmentAssembler(new CoalescedFrameHandler(fragmentHandler));
+    }
+    
+    private static ControlledFragmentHandler wholeMessages(ControlledFragmentHandler fragmentHandler) {
+        return new ControlledFragmentAssembler(new ControlledCoalescedFrameHandler(fragmentHandler));
+    }
+    
+    private FragmentHandler countedMessages(FragmentHandler fragmentHandler) {
+        return wholeMessages((buffer, offset, length, header) -> {
+            messagesReceived.incrementAndGet();
+            fragmentHandler.onFragment(buffer, offset, length, header);
+        });
+    }
+    
+    private ControlledFragmentHandler countedMessages(ControlledFragmentHandler fragmentHandler) {
+        return wholeMessages((buffer, offset, length, header) -> {
+            ControlledFragmentHandler.Action action = fragmentHandler.onFragment(buffer, offset, length, header);
+            if (action != ControlledFragmentHandler.Action.ABORT) {
+                messagesReceived.incrementAndGet();
+            }
+            return action;
+        });
+    }
+    
+    private void pollUntilStopped(FragmentHandler fragmentHandler) {
+        idleStrategy.reset();
+        
+        while (running.get()) {
+            int fragmentsRead = subscription.poll(fragmentHandler, fragmentLimit);
+            idleStrategy.idle(fragmentsRead);
+        }
+    }
+    
+    private void controlledPollUntilStopped(ControlledFragmentHandler fragmentHandler) {
+        idleStrategy.reset();
+        
+        while (running.get()) {
+            int fragmentsRead = subscription.controlledPoll(fragmentHandler, fragmentLimit);
+            idleStrategy.idle(fragmentsRead);
+        }
+    }
+    
     @Override
     public void close() {
         stopPolling();
         subscription.close();
-        aeron.close();
+        if (ownsClient) {
+            aeron.close();
+        }
         log.info("AeronSubscriber closed");
     }
 }
@@ -0,0 +1,154 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.IdleStrategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Replays a recorded stream from an Aeron Archive through the same handlers as a live subscriber.
+ *
+ * A replay runs on the calling thread from the requested position to where the recording had got
+ * to when the replay started, reassembling fragmented messages and unpacking coalesced frames as
+ * {@link AeronSubscriber} does. Positions must be message boundaries, such as the recording's start
+ * position or a {@code header.position()} seen by an earlier handler. A replay that does not start
+ * within the archive client's message timeout, or that the archive rejects, fails rather than
+ * waiting forever. Not thread safe, as the {@link AeronArchive} client it uses is not.
+ */
+public class ArchiveReplayer {
+    public static final String DEFAULT_REPLAY_CHANNEL = "aeron:ipc";
+    
+    private final AeronArchive archive;
+    private final String replayChannel;
+    private final int replayStreamId;
+    private final IdleStrategy idleStrategy;
+    private final int fragmentLimit;
+    private long messagesReplayed;
+    
+    public ArchiveReplayer(AeronArchive archive, int replayStreamId) {
+        this(archive, DEFAULT_REPLAY_CHANNEL, replayStreamId,
+            IdleStrategyType.BACKOFF.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+    }
+    
+    /**
+     * @param replayChannel the channel the archive replays on; concurrent replays are told apart
+     *                      by session id, so they can share it
+     * @param idleStrategy how the replaying thread waits when a poll finds no fragments
+     * @param fragmentLimit the maximum number of fragments handled per poll
+     */
+    public ArchiveReplayer(
+        AeronArchive archive, String replayChannel, int replayStreamId, IdleStrategy idleStrategy, int fragmentLimit) {
+        this.archive = archive;
+        this.replayChannel = replayChannel;
+        this.replayStreamId = replayStreamId;
+        this.idleStrategy = idleStrategy;
+        this.fragmentLimit = fragmentLimit;
+    }
+    
+    /**
+     * Replay a recording from a position to its current end
+     * @return the number of messages handled
+     */
+    public long replay(long recordingId, long position, FragmentHandler fragmentHandler) {
+        long endPosition = recordedPosition(recordingId);
+        if (position < archive.getStartPosition(recordingId) || position > endPosition) {
+            throw new IllegalArgumentException("Position " + position + " is outside recording " + recordingId);
+        }
+        
+        messagesReplayed = 0;
+        if (position == endPosition) {
+            return 0;
+        }
+        
+        FragmentHandler countingHandler = AeronSubscriber.wholeMessages((buffer, offset, length, header) -> {
+            messagesReplayed++;
+            fragmentHandler.onFragment(buffer, offset, length, header);
+        });
+        
+        try (Subscription subscription =
+                 archive.replay(recordingId, position, endPosition - position, replayChannel, replayStreamId)) {
+            awaitReplayImage(recordingId, subscription);
+            
+            Image image = subscription.imageAtIndex(0);
+            idleStrategy.reset();
+            while (image.position() < endPosition) {
+                int fragmentsRead = image.poll(countingHandler, fragmentLimit);
+                if (fragmentsRead == 0 && image.isClosed()) {
+                    throw new IllegalStateException("Replay of recording " + recordingId +
+                        " ended at " + image.position() + " before " + endPosition);
+                }
+                idleStrategy.idle(fragmentsRead);
+            }
+        }
+        
+        return messagesReplayed;
+    }
+    
+    /**
+     * Replay a recording from a position, decoding each message with the serializer
+     * @return the number of messages handled
+     */
+    public <T> long replay(long recordingId, long position, MessageSerializer<T> serializer, Consumer<T> consumer) {
+        return replay(recordingId, position, (buffer, offset, length, header) ->
+            consumer.accept(serializer.deserialize(buffer, offset, length)));
+    }
+    
+    /**
+     * Replay a recording from the first message stamped at or after the given timestamp.
+     *
+     * The archive does not index recordings by time, so this replays from the start of the recording
+     * and decodes each message to find the first one due. Messages are assumed to be in timestamp
+     * order; everything after the first one due is delivered.
+     * @param timestampOf reads the timestamp of a message, e.g. {@code Trade::timestamp}
+     * @return the number of messages delivered to the consumer
+     */
+    public <T> long replayFromTimestamp(
+        long recordingId, long timestamp, MessageSerializer<T> serializer, ToLongFunction<T> timestampOf,
+        Consumer<T> consumer) {
+        long[] delivered = new long[1];
+        replay(recordingId, archive.getStartPosition(recordingId), serializer, message -> {
+            if (delivered[0] > 0 || timestampOf.applyAsLong(message) >= timestamp) {
+                delivered[0]++;
+                consumer.accept(message);
+            }
+        });
+        return delivered[0];
+    }
+    
+    /**
+     * Wait for the replay to start, within the archive client's message timeout
+     * @throws io.aeron.archive.client.ArchiveException if the archive rejects or fails the replay
+     */
+    private void awaitReplayImage(long recordingId, Subscription subscription) {
+        long timeoutNs = archive.context().messageTimeoutNs();
+        long deadlineNs = System.nanoTime() + timeoutNs;
+        
+        idleStrategy.reset();
+        while (subscription.imageCount() == 0) {
+            archive.checkForErrorResponse();
+            if (System.nanoTime() - deadlineNs > 0) {
+                throw new IllegalStateException("Replay of recording " + recordingId + " did not start within " +
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNs) + "ms");
+            }
+            idleStrategy.idle();
+        }
+    }
+    
+    /**
+     * The position a recording has reached, whether it is still recording or has stopped
+     */
+    public long recordedPosition(long recordingId) {
+        long position = archive.getRecordingPosition(recordingId);
+        return position != AeronArchive.NULL_POSITION ? position : archive.getStopPosition(recordingId);
+    }
+    
+    public long getMessagesReplayed() {
+        return messagesReplayed;
+    }
+}
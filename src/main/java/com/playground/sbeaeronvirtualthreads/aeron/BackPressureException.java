@@ -0,0 +1,11 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+/**
+ * Thrown by a publisher using {@link BackPressurePolicy#FAIL_FAST} when the publication is back pressured
+ */
+public class BackPressureException extends RuntimeException {
+    
+    public BackPressureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+/**
+ * What a publisher does when an offer or claim is back pressured.
+ *
+ * Under load this choice decides the tail latency of publishing threads, so each policy is
+ * counted by the publisher's back pressure metrics.
+ */
+public enum BackPressurePolicy {
+    /**
+     * Spin until the publication has room; lowest latency, but burns a core and can stall the
+     * caller indefinitely. The original publisher behaviour.
+     */
+    SPIN,
+    
+    /**
+     * Spin and yield briefly, then park for increasing periods until the publication has room,
+     * so a virtual thread publisher releases its carrier while it waits
+     */
+    BOUNDED_SPIN_THEN_PARK,
+    
+    /**
+     * Drop the message being published and return straight away
+     */
+    DROP_NEWEST,
+    
+    /**
+     * Queue the message in a bounded local queue that is flushed ahead of later messages,
+     * dropping the oldest queued messages when the queue is full
+     */
+    DROP_OLDEST,
+    
+    /**
+     * Throw a {@link BackPressureException} straight away
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,122 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import io.aeron.ChannelUriStringBuilder;
+import io.aeron.CommonContext;
+
+/**
+ * Builder for Aeron channel URIs covering IPC and UDP unicast or multicast, with the MTU, term
+ * length and socket buffer sizes that need tuning when moving from IPC to a network path.
+ *
+ * Socket buffer sizes are capped by the OS (e.g. {@code net.core.rmem_max} on Linux) and must not
+ * exceed the media driver's {@code aeron.socket.so_sndbuf}/{@code so_rcvbuf} settings.
+ */
+public class ChannelConfig {
+    /**
+     * System property holding a full channel URI, read by {@link #channelOrDefault(String)}
+     */
+    public static final String CHANNEL_PROPERTY = "sbe.channel";
+    
+    private final String media;
+    private final String endpoint;
+    private final String networkInterface;
+    private Integer mtu;
+    private Integer termLength;
+    private Integer socketSndbufLength;
+    private Integer socketRcvbufLength;
+    
+    private ChannelConfig(String media, String endpoint, String networkInterface) {
+        this.media = media;
+        this.endpoint = endpoint;
+        this.networkInterface = networkInterface;
+    }
+    
+    /**
+     * Shared memory between processes on one host
+     */
+    public static ChannelConfig ipc() {
+        return new ChannelConfig(CommonContext.IPC_MEDIA, null, null);
+    }
+    
+    /**
+     * UDP to a single subscriber
+     * @param endpoint the subscriber's host and port, e.g. {@code localhost:40123}
+     */
+    public static ChannelConfig udpUnicast(String endpoint) {
+        return new ChannelConfig(CommonContext.UDP_MEDIA, endpoint, null);
+    }
+    
+    /**
+     * UDP to a multicast group
+     * @param groupEndpoint the group address and port, e.g. {@code 224.0.1.1:40456}
+     * @param networkInterface the interface to send and join on, e.g. {@code 192.168.1.0/24}, or null for the default
+     */
+    public static ChannelConfig udpMulticast(String groupEndpoint, String networkInterface) {
+        return new ChannelConfig(CommonContext.UDP_MEDIA, groupEndpoint, networkInterface);
+    }
+    
+    /**
+     * The channel from the {@value #CHANNEL_PROPERTY} system property, or the default when unset
+     */
+    public static String channelOrDefault(String defaultChannel) {
+        return System.getProperty(CHANNEL_PROPERTY, defaultChannel);
+    }
+    
+    /**
+     * Maximum frame length including headers; a multiple of 32, at most 64KB for UDP
+     */
+    public ChannelConfig mtu(int mtu) {
+        this.mtu = mtu;
+        return this;
+    }
+    
+    /**
+     * Length of each of the three log buffer terms; a power of two from 64KB to 1GB
+     */
+    public ChannelConfig termLength(int termLength) {
+        this.termLength = termLength;
+        return this;
+    }
+    
+    /**
+     * SO_SNDBUF for the channel's UDP socket
+     */
+    public ChannelConfig socketSndbufLength(int socketSndbufLength) {
+        this.socketSndbufLength = socketSndbufLength;
+        return this;
+    }
+    
+    /**
+     * SO_RCVBUF for the channel's UDP socket
+     */
+    public ChannelConfig socketRcvbufLength(int socketRcvbufLength) {
+        this.socketRcvbufLength = socketRcvbufLength;
+        return this;
+    }
+    
+    public boolean isIpc() {
+        return CommonContext.IPC_MEDIA.equals(media);
+    }
+    
+    /**
+     * Build the channel URI, e.g. {@code aeron:udp?endpoint=localhost:40123|mtu=8192}
+     */
+    public String build() {
+        ChannelUriStringBuilder builder = new ChannelUriStringBuilder()
+            .media(media)
+            .endpoint(endpoint)
+            .networkInterface(networkInterface)
+            .mtu(mtu)
+            .termLength(termLength);
+        
+        if (!isIpc()) {
+            builder.socketSndbufLength(socketSndbufLength).socketRcvbufLength(socketRcvbufLength);
+        }
+        
+        return builder.build();
+    }
+    
+    @Override
+    public String toString() {
+        return build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Fragment handler that unpacks frames coalesced by {@link AeronPublisher#enableCoalescing}.
+ *
+ * A coalesced frame carries {@link #RESERVED_VALUE} in its frame header and holds a sequence of
+ * messages, each prefixed with its length and aligned to {@link #MESSAGE_ALIGNMENT}. Each message is
+ * passed to the delegate on its own; fragments without the marker are passed through unchanged.
+ */
+public class CoalescedFrameHandler implements FragmentHandler {
+    /**
+     * Frame header reserved value marking a coalesced frame, "COALESCE" in ASCII
+     */
+    public static final long RESERVED_VALUE = 0x434F414C45534345L;
+    public static final int LENGTH_PREFIX_LENGTH = BitUtil.SIZE_OF_INT;
+    public static final int MESSAGE_ALIGNMENT = BitUtil.SIZE_OF_INT;
+    
+    private final FragmentHandler delegate;
+    
+    public CoalescedFrameHandler(FragmentHandler delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        if (header.reservedValue() != RESERVED_VALUE) {
+            delegate.onFragment(buffer, offset, length, header);
+            return;
+        }
+        
+        int position = 0;
+        while (position < length) {
+            int messageLength = buffer.getInt(offset + position, ByteOrder.LITTLE_ENDIAN);
+            delegate.onFragment(buffer, offset + position + LENGTH_PREFIX_LENGTH, messageLength, header);
+            position += encodedLength(messageLength);
+        }
+    }
+    
+    /**
+     * Space a message of the given length takes in a coalesced frame
+     */
+    public static int encodedLength(int messageLength) {
+        return BitUtil.align(LENGTH_PREFIX_LENGTH + messageLength, MESSAGE_ALIGNMENT);
+    }
+}
@@ -0,0 +1,162 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import org.agrona.collections.Object2IntHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Market data publisher that conflates quotes per symbol while the publication is back pressured.
+ *
+ * While nothing is pending an update is encoded straight into the log buffer. Once the publication
+ * back pressures, updates are encoded into an off-heap last-value slot for their symbol and the
+ * symbol is marked dirty. Dirty symbols are then offered in the order they were first dirtied,
+ * stopping at the first back pressured offer. A symbol updated again before it is sent just has
+ * its slot overwritten, so a slow subscriber gets the latest quote per symbol instead of a backlog
+ * of stale ones. Publisher latency stays flat and memory is bounded by the number of symbols. While
+ * no subscriber is connected quotes keep conflating in the same way until one connects.
+ *
+ * Pending symbols are only sent on the next {@link #publish} or {@link #flush}, so call
+ * {@link #flush} from the publishing thread when updates pause. Quotes are offered with the
+ * wrapped publisher's try methods, which send its open coalesced frame and queued messages first,
+ * so sharing it with other messages keeps their order. Not thread safe. The wrapped publisher is
+ * not closed with this one.
+ */
+public class ConflatingMarketDataPublisher {
+    private static final int NO_SLOT = -1;
+    
+    private final AeronPublisher publisher;
+    private final MessageSerializer<MarketData> serializer;
+    private final int maxSymbols;
+    private final int slotLength;
+    private final UnsafeBuffer slots;
+    private final UnsafeBuffer slotBuffer = new UnsafeBuffer(0, 0);
+    private final int[] slotLengths;
+    private final boolean[] dirty;
+    private final int[] dirtySlots;
+    private final Object2IntHashMap<String> slotBySymbol;
+    
+    private int symbolCount;
+    private int dirtyCount;
+    private long conflatedUpdates;
+    private long backPressuredFlushes;
+    
+    /**
+     * @param publisher the publisher to offer quotes to
+     * @param serializer encodes quotes into their slots
+     * @param maxSymbols the number of symbols to reserve slots for
+     * @param slotLength the largest encoded quote in bytes
+     */
+    public ConflatingMarketDataPublisher(
+        AeronPublisher publisher, MessageSerializer<MarketData> serializer, int maxSymbols, int slotLength) {
+        this.publisher = publisher;
+        this.serializer = serializer;
+        this.maxSymbols = maxSymbols;
+        this.slotLength = slotLength;
+        this.slots = new UnsafeBuffer(ByteBuffer.allocateDirect(maxSymbols * slotLength));
+        this.slotLengths = new int[maxSymbols];
+        this.dirty = new boolean[maxSymbols];
+        this.dirtySlots = new int[maxSymbols];
+        this.slotBySymbol = new Object2IntHashMap<>(maxSymbols * 2, 0.65f, NO_SLOT);
+    }
+    
+    /**
+     * Send the quote straight away if nothing is pending. Otherwise, or if the publication does not
+     * accept it, store it as its symbol's latest value and send as many dirty symbols as the
+     * publication accepts.
+     * @param marketData the quote to publish
+     * @return true if nothing is left pending
+     */
+    public boolean publish(MarketData marketData) {
+        int slot = slotFor(marketData.symbol());
+        
+        boolean direct = dirtyCount == 0;
+        if (direct) {
+            if (publisher.tryPublish(marketData, serializer)) {
+                return true;
+            }
+            backPressuredFlushes++;
+        }
+        
+        slotBuffer.wrap(slots, slot * slotLength, slotLength);
+        slotLengths[slot] = serializer.serialize(marketData, slotBuffer, 0);
+        
+        if (dirty[slot]) {
+            conflatedUpdates++;
+        } else {
+            dirty[slot] = true;
+            dirtySlots[dirtyCount++] = slot;
+        }
+        
+        // A failed direct attempt already stands for this publish's flush
+        return !direct && flush();
+    }
+    
+    /**
+     * Send pending symbols in the order they were first dirtied until the publication back pressures
+     * or is left without a subscriber
+     * @return true if nothing is left pending
+     */
+    public boolean flush() {
+        int sent = 0;
+        while (sent < dirtyCount) {
+            int slot = dirtySlots[sent];
+            if (!publisher.tryPublish(slots, slot * slotLength, slotLengths[slot])) {
+                backPressuredFlushes++;
+                break;
+            }
+            dirty[slot] = false;
+            sent++;
+        }
+        
+        if (sent > 0) {
+            System.arraycopy(dirtySlots, sent, dirtySlots, 0, dirtyCount - sent);
+            dirtyCount -= sent;
+        }
+        
+        return dirtyCount == 0;
+    }
+    
+    /**
+     * Symbols with a quote waiting to be sent
+     */
+    public int getPendingSymbols() {
+        return dirtyCount;
+    }
+    
+    /**
+     * Symbols with a slot, which bounds the memory held
+     */
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+    
+    /**
+     * Updates that overwrote a quote which had not been sent yet
+     */
+    public long getConflatedUpdates() {
+        return conflatedUpdates;
+    }
+    
+    /**
+     * Flushes that stopped because the publication was back pressured or not connected
+     */
+    public long getBackPressuredFlushes() {
+        return backPressuredFlushes;
+    }
+    
+    private int slotFor(String symbol) {
+        int slot = slotBySymbol.getValue(symbol);
+        if (slot == NO_SLOT) {
+            if (symbolCount == maxSymbols) {
+                throw new IllegalStateException("No conflation slot left for symbol " + symbol + ", max " + maxSymbols);
+            }
+            slot = symbolCount++;
+            slotBySymbol.put(symbol, slot);
+        }
+        
+        return slot;
+    }
+}
@@ -0,0 +1,81 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Controlled counterpart of {@link CoalescedFrameHandler}, unpacking coalesced frames for a
+ * {@link ControlledFragmentHandler}.
+ *
+ * Aeron can only abort or commit a whole frame, so when the delegate aborts part way through a
+ * coalesced frame the frame is aborted and the index of the aborted message is remembered. When
+ * the same frame is delivered again, unpacking resumes from that message, so none are repeated or
+ * lost. A break part way through a frame is turned into an abort that resumes after the message
+ * which asked to break, which ends the poll just as a break would.
+ */
+public class ControlledCoalescedFrameHandler implements ControlledFragmentHandler {
+    private final ControlledFragmentHandler delegate;
+    
+    private int resumeSessionId;
+    private long resumePosition = -1;
+    private int resumeIndex;
+    
+    public ControlledCoalescedFrameHandler(ControlledFragmentHandler delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public Action onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        if (header.reservedValue() != CoalescedFrameHandler.RESERVED_VALUE) {
+            return delegate.onFragment(buffer, offset, length, header);
+        }
+        
+        boolean resuming = header.position() == resumePosition && header.sessionId() == resumeSessionId;
+        int firstIndex = resuming ? resumeIndex : 0;
+        resumePosition = -1;
+        
+        boolean commit = false;
+        int index = 0;
+        int position = 0;
+        while (position < length) {
+            int messageLength = buffer.getInt(offset + position, ByteOrder.LITTLE_ENDIAN);
+            int nextPosition = position + CoalescedFrameHandler.encodedLength(messageLength);
+            
+            if (index >= firstIndex) {
+                Action action = delegate.onFragment(
+                    buffer, offset + position + CoalescedFrameHandler.LENGTH_PREFIX_LENGTH, messageLength, header);
+                
+                switch (action) {
+                    case ABORT -> {
+                        return resumeAt(header, index);
+                    }
+                    case BREAK -> {
+                        if (nextPosition < length) {
+                            return resumeAt(header, index + 1);
+                        }
+                        return Action.BREAK;
+                    }
+                    case COMMIT -> commit = true;
+                    default -> {
+                        // CONTINUE
+                    }
+                }
+            }
+            
+            position = nextPosition;
+            index++;
+        }
+        
+        return commit ? Action.COMMIT : Action.CONTINUE;
+    }
+    
+    private Action resumeAt(Header header, int index) {
+        resumeSessionId = header.sessionId();
+        resumePosition = header.position();
+        resumeIndex = index;
+        return Action.ABORT;
+    }
+}
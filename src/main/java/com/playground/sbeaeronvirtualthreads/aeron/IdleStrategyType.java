@@ -0,0 +1,50 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SleepingIdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+
+/**
+ * Idle strategies available to pollers, from lowest latency and highest CPU use to lowest CPU use
+ */
+public enum IdleStrategyType {
+    /**
+     * Spins on a core; lowest latency, burns a full core even when idle
+     */
+    BUSY_SPIN,
+    
+    /**
+     * Yields the core between polls; low latency while still burning CPU when idle
+     */
+    YIELDING,
+    
+    /**
+     * Spins, then yields, then parks with increasing periods
+     */
+    BACKOFF,
+    
+    /**
+     * Parks for a fixed 1µs after every empty poll; the original subscriber behaviour
+     */
+    SLEEPING,
+    
+    /**
+     * Brief spin and yield, then parks so a virtual thread poller releases its carrier
+     */
+    VIRTUAL_THREAD_PARKING;
+    
+    /**
+     * Create a new strategy instance; instances hold state so each polling thread needs its own
+     */
+    public IdleStrategy newIdleStrategy() {
+        return switch (this) {
+            case BUSY_SPIN -> new BusySpinIdleStrategy();
+            case YIELDING -> new YieldingIdleStrategy();
+            case BACKOFF -> new BackoffIdleStrategy();
+            case SLEEPING -> new SleepingIdleStrategy(1000);
+            case VIRTUAL_THREAD_PARKING -> new VirtualThreadIdleStrategy();
+        };
+    }
+}
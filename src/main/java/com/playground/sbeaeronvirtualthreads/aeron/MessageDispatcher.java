@@ -0,0 +1,91 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.PerformanceMetrics;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.MarketDataMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.PerformanceMetricsDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.PerformanceMetricsSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Fragment handler that routes SBE messages sharing one stream to a handler per message type.
+ *
+ * The templateId from the message header indexes straight into an array of handlers, so routing
+ * costs one header read and one array load. Fragments from another schema, with an unregistered
+ * template or too short to hold a header are counted and dropped. Handlers are registered before
+ * polling starts and are then only used from the polling thread.
+ */
+public class MessageDispatcher implements FragmentHandler {
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private FragmentHandler[] handlers = new FragmentHandler[0];
+    private long unknownMessages;
+    
+    /**
+     * Route a template to a raw fragment handler, e.g. one that reads the message through a flyweight
+     */
+    public MessageDispatcher register(int templateId, FragmentHandler handler) {
+        if (templateId >= handlers.length) {
+            handlers = Arrays.copyOf(handlers, templateId + 1);
+        }
+        handlers[templateId] = handler;
+        return this;
+    }
+    
+    /**
+     * Route a template to a handler receiving the message decoded by the given serializer
+     */
+    public <T> MessageDispatcher register(int templateId, MessageSerializer<T> serializer, Consumer<T> handler) {
+        return register(templateId,
+            (buffer, offset, length, header) -> handler.accept(serializer.deserialize(buffer, offset, length)));
+    }
+    
+    public MessageDispatcher onTrade(Consumer<Trade> handler) {
+        return register(TradeMessageDecoder.TEMPLATE_ID, new TradeSbeSerializer(), handler);
+    }
+    
+    public MessageDispatcher onMarketData(Consumer<MarketData> handler) {
+        return register(MarketDataMessageDecoder.TEMPLATE_ID, new MarketDataSbeSerializer(), handler);
+    }
+    
+    public MessageDispatcher onPerformanceMetrics(Consumer<PerformanceMetrics> handler) {
+        return register(PerformanceMetricsDecoder.TEMPLATE_ID, new PerformanceMetricsSbeSerializer(), handler);
+    }
+    
+    @Override
+    public void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        if (length < MessageHeaderDecoder.ENCODED_LENGTH) {
+            unknownMessages++;
+            return;
+        }
+        
+        headerDecoder.wrap(buffer, offset);
+        int templateId = headerDecoder.templateId();
+        
+        if (headerDecoder.schemaId() != MessageHeaderDecoder.SCHEMA_ID ||
+            templateId >= handlers.length ||
+            handlers[templateId] == null) {
+            unknownMessages++;
+            return;
+        }
+        
+        handlers[templateId].onFragment(buffer, offset, length, header);
+    }
+    
+    /**
+     * Number of fragments dropped because no handler was registered for them
+     */
+    public long getUnknownMessages() {
+        return unknownMessages;
+    }
+}
@@ -0,0 +1,167 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+
+import java.nio.ByteOrder;
+
+/**
+ * Fragment handler that tracks stream positions per session and drops duplicate messages before
+ * they reach the delegate handler.
+ *
+ * Aeron does not lose or repeat data within an image, so the position of a session only moves
+ * backwards when its stream is delivered again, for example after a reconnect. New sessions, such
+ * as a restarted publisher or an archive replay, are counted. Duplicates are found by a sequence
+ * read from each message, the tradeId for SBE trades, in a {@link SequenceWindow}, which also
+ * counts the sequences that never arrived. Messages without a sequence are passed through.
+ *
+ * Pass the tracker to {@link AeronSubscriber} in place of the handler; it sees whole messages.
+ * The counters are plain fields updated on the polling thread, so reads from another thread may
+ * lag slightly.
+ */
+public class MessageTracker implements FragmentHandler {
+    /**
+     * Returned by a {@link SequenceReader} for messages that have no sequence
+     */
+    public static final long NO_SEQUENCE = Long.MIN_VALUE;
+    
+    private static final long NO_POSITION = -1;
+    private static final int TRADE_ID_OFFSET =
+        MessageHeaderDecoder.ENCODED_LENGTH + TradeMessageDecoder.tradeIdEncodingOffset();
+    private static final int TEMPLATE_ID_OFFSET = MessageHeaderDecoder.templateIdEncodingOffset();
+    private static final int SCHEMA_ID_OFFSET = MessageHeaderDecoder.schemaIdEncodingOffset();
+    
+    /**
+     * Reads the sequence used for duplicate detection from an encoded message
+     */
+    @FunctionalInterface
+    public interface SequenceReader {
+        /**
+         * @return the sequence, or {@link MessageTracker#NO_SEQUENCE} to pass the message through unchecked
+         */
+        long sequence(DirectBuffer buffer, int offset, int length);
+    }
+    
+    /**
+     * Reads the tradeId of SBE TradeMessages straight from the buffer; other messages have no sequence
+     */
+    public static final SequenceReader SBE_TRADE_ID = MessageTracker::sbeTradeId;
+    
+    private final FragmentHandler delegate;
+    private final SequenceReader sequenceReader;
+    private final SequenceWindow sequenceWindow;
+    private final Long2LongHashMap positionBySession = new Long2LongHashMap(NO_POSITION);
+    private long messagesDelivered;
+    private long positionRewinds;
+    private long rewoundBytes;
+    
+    /**
+     * Track SBE trades by tradeId over the default window
+     */
+    public MessageTracker(FragmentHandler delegate) {
+        this(delegate, SBE_TRADE_ID, SequenceWindow.DEFAULT_WINDOW_BITS);
+    }
+    
+    /**
+     * @param sequenceReader reads the sequence to deduplicate on from each message
+     * @param windowBits the number of recent sequences checked for duplicates, a power of two
+     */
+    public MessageTracker(FragmentHandler delegate, SequenceReader sequenceReader, int windowBits) {
+        this.delegate = delegate;
+        this.sequenceReader = sequenceReader;
+        this.sequenceWindow = new SequenceWindow(windowBits);
+    }
+    
+    @Override
+    public void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        trackPosition(header.sessionId(), header.position());
+        
+        long sequence = sequenceReader.sequence(buffer, offset, length);
+        if (sequence != NO_SEQUENCE && !sequenceWindow.markSeen(sequence)) {
+            return;
+        }
+        
+        messagesDelivered++;
+        delegate.onFragment(buffer, offset, length, header);
+    }
+    
+    /**
+     * Number of distinct sessions seen, e.g. publishers, reconnects and replays
+     */
+    public int getSessions() {
+        return positionBySession.size();
+    }
+    
+    /**
+     * The last position seen on a session, or -1 if it has not been seen
+     */
+    public long getPosition(int sessionId) {
+        return positionBySession.get(sessionId);
+    }
+    
+    /**
+     * Times a session's position went backwards, i.e. data on it was delivered again
+     */
+    public long getPositionRewinds() {
+        return positionRewinds;
+    }
+    
+    /**
+     * Total bytes of stream position delivered again across all rewinds
+     */
+    public long getRewoundBytes() {
+        return rewoundBytes;
+    }
+    
+    public long getMessagesDelivered() {
+        return messagesDelivered;
+    }
+    
+    public long getDuplicates() {
+        return sequenceWindow.getDuplicates();
+    }
+    
+    /**
+     * Messages dropped because their sequence was too far behind the newest to check
+     */
+    public long getStaleMessages() {
+        return sequenceWindow.getStaleSequences();
+    }
+    
+    /**
+     * Sequences that fell out of the window without arriving
+     */
+    public long getGaps() {
+        return sequenceWindow.getGaps();
+    }
+    
+    private static long sbeTradeId(DirectBuffer buffer, int offset, int length) {
+        if (length < TRADE_ID_OFFSET + Long.BYTES) {
+            return NO_SEQUENCE;
+        }
+        
+        int schemaId = buffer.getShort(offset + SCHEMA_ID_OFFSET, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        int templateId = buffer.getShort(offset + TEMPLATE_ID_OFFSET, ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        if (schemaId != MessageHeaderDecoder.SCHEMA_ID || templateId != TradeMessageDecoder.TEMPLATE_ID) {
+            return NO_SEQUENCE;
+        }
+        return buffer.getLong(offset + TRADE_ID_OFFSET, ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    private void trackPosition(int sessionId, long position) {
+        long lastPosition = positionBySession.get(sessionId);
+        
+        // Coalesced messages share a frame and so a position
+        if (position > lastPosition) {
+            positionBySession.put(sessionId, position);
+        } else if (position < lastPosition) {
+            positionRewinds++;
+            rewoundBytes += lastPosition - position;
+            positionBySession.put(sessionId, position);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.ControlledMessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Publisher that many threads, including virtual threads, can use at the same time.
+ *
+ * Producers encode straight into a claimed slot of a {@link ManyToOneRingBuffer}. A single
+ * drainer thread reads the ring buffer and offers each message to the wrapped
+ * {@link AeronPublisher}, which therefore stays single threaded. Serializers hold encoder state,
+ * so each producer must use its own serializer instance. While the publication has no subscriber,
+ * or rejects a message under {@link BackPressurePolicy#FAIL_FAST}, the drainer leaves messages in
+ * the ring buffer and retries them on a later duty cycle, so producers see it fill up rather than
+ * messages being lost. The wrapped publisher is not closed with this one.
+ */
+public class MultiProducerPublisher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MultiProducerPublisher.class);
+    
+    public static final int MESSAGE_TYPE_ID = 1;
+    private static final int DRAIN_LIMIT = 64;
+    
+    private final AeronPublisher publisher;
+    private final RingBuffer ringBuffer;
+    private final ControlledMessageHandler forwarder;
+    private final AgentRunner drainerRunner;
+    
+    /**
+     * @param publisher the publisher the drainer forwards to
+     * @param ringBufferCapacity capacity of the ring buffer in bytes, rounded up to a power of two
+     * @param idleStrategyType how the drainer waits when the ring buffer is empty
+     */
+    public MultiProducerPublisher(AeronPublisher publisher, int ringBufferCapacity, IdleStrategyType idleStrategyType) {
+        int capacity = BitUtil.findNextPositivePowerOfTwo(ringBufferCapacity);
+        
+        this.publisher = publisher;
+        this.ringBuffer = new ManyToOneRingBuffer(
+            new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH)));
+        this.forwarder = (msgTypeId, buffer, index, length) -> forward(buffer, index, length);
+        
+        Agent drainer = new Agent() {
+            @Override
+            public int doWork() {
+                return ringBuffer.controlledRead(forwarder, DRAIN_LIMIT);
+            }
+            
+            @Override
+            public String roleName() {
+                return "multi-producer-drainer";
+            }
+        };
+        
+        this.drainerRunner = new AgentRunner(
+            idleStrategyType.newIdleStrategy(), error -> log.error("Drainer error", error), null, drainer);
+        AgentRunner.startOnThread(drainerRunner);
+        
+        log.info("MultiProducerPublisher started with ring buffer capacity: {}", capacity);
+    }
+    
+    /**
+     * Encode a message into the ring buffer without blocking
+     * @param message the message to publish
+     * @param serializer the calling producer's serializer, which must report its encoded length
+     * @return true if the message was queued, false if the ring buffer is full
+     */
+    public <T> boolean tryPublish(T message, MessageSerializer<T> serializer) {
+        int length = serializer.encodedLength(message);
+        if (length < 0) {
+            throw new IllegalArgumentException(
+                serializer.getFormatName() + " serializer cannot report its encoded length for a ring buffer claim");
+        }
+        
+        int index = ringBuffer.tryClaim(MESSAGE_TYPE_ID, length);
+        if (index <= 0) {
+            return false;
+        }
+        
+        try {
+            serializer.serialize(message, ringBuffer.buffer(), index);
+            ringBuffer.commit(index);
+        } catch (RuntimeException e) {
+            ringBuffer.abort(index);
+            throw e;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Encode a message into the ring buffer, yielding while it is full
+     */
+    public <T> void publish(T message, MessageSerializer<T> serializer) {
+        while (!tryPublish(message, serializer)) {
+            Thread.yield();
+        }
+    }
+    
+    /**
+     * Copy already encoded data into the ring buffer without blocking
+     * @return true if the data was queued, false if the ring buffer is full
+     */
+    public boolean tryPublish(DirectBuffer source, int offset, int length) {
+        return ringBuffer.write(MESSAGE_TYPE_ID, source, offset, length);
+    }
+    
+    /**
+     * Bytes currently queued and not yet forwarded to the publication
+     */
+    public int queuedBytes() {
+        return ringBuffer.size();
+    }
+    
+    public int maxMessageLength() {
+        return ringBuffer.maxMsgLength();
+    }
+    
+    /**
+     * Stop the drainer, then forward whatever producers queued before it stopped and the
+     * publication will take
+     */
+    /**
+     * Offer one message to the publisher, leaving it in the ring buffer if the publication cannot
+     * take it yet
+     */
+    private ControlledMessageHandler.Action forward(DirectBuffer buffer, int index, int length) {
+        if (!publisher.isConnected()) {
+            return ControlledMessageHandler.Action.ABORT;
+        }
+        
+        try {
+            publisher.publish(buffer, index, length);
+        } catch (BackPressureException e) {
+            return ControlledMessageHandler.Action.ABORT;
+        } catch (RuntimeException e) {
+            if (!publisher.isConnected()) {
+                // The subscriber went away between the check and the offer
+                return ControlledMessageHandler.Action.ABORT;
+            }
+            throw e;
+        }
+        
+        return ControlledMessageHandler.Action.CONTINUE;
+    }
+    
+    @Override
+    public void close() {
+        drainerRunner.close();
+        
+        while (ringBuffer.controlledRead(forwarder, DRAIN_LIMIT) > 0) {
+            // Keep draining
+        }
+        log.info("MultiProducerPublisher closed");
+    }
+}
@@ -0,0 +1,139 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import org.agrona.BitUtil;
+
+import java.util.Arrays;
+
+/**
+ * Exact duplicate filter over a rolling window of the most recent sequence numbers, e.g. tradeIds.
+ *
+ * One bit per sequence in a circular {@code long[]}, so a 64K window takes 8KB and checking a
+ * sequence is a shift, a mask and a word load. Sequences more than the window size below the
+ * highest one seen are too old to check and are rejected as stale. Sequences below the first one
+ * seen count as already delivered. A sequence that is never seen is counted as a gap once the
+ * window moves past it, so a late arrival within the window is not a gap. Not thread safe.
+ */
+public class SequenceWindow {
+    public static final int DEFAULT_WINDOW_BITS = 64 * 1024;
+    
+    private final long[] words;
+    private final int windowBits;
+    private final int mask;
+    private boolean started;
+    private long highestSequence;
+    private long duplicates;
+    private long staleSequences;
+    private long gaps;
+    
+    public SequenceWindow() {
+        this(DEFAULT_WINDOW_BITS);
+    }
+    
+    /**
+     * @param windowBits the number of recent sequences remembered, a power of two of at least 64
+     */
+    public SequenceWindow(int windowBits) {
+        if (windowBits < Long.SIZE || !BitUtil.isPowerOfTwo(windowBits)) {
+            throw new IllegalArgumentException("Window must be a power of two of at least 64 bits: " + windowBits);
+        }
+        
+        this.words = new long[windowBits / Long.SIZE];
+        this.windowBits = windowBits;
+        this.mask = windowBits - 1;
+    }
+    
+    /**
+     * Record a sequence
+     * @return true the first time it is seen; false for duplicates and for sequences older than the window
+     */
+    public boolean markSeen(long sequence) {
+        if (!started) {
+            // Everything before the first sequence is treated as delivered
+            Arrays.fill(words, -1L);
+            highestSequence = sequence;
+            started = true;
+            return true;
+        }
+        
+        if (sequence > highestSequence) {
+            advanceTo(sequence);
+            set(sequence);
+            return true;
+        }
+        
+        if (highestSequence - sequence >= windowBits) {
+            staleSequences++;
+            return false;
+        }
+        
+        int slot = (int) sequence & mask;
+        long bit = 1L << slot;
+        int word = slot >>> 6;
+        if ((words[word] & bit) != 0) {
+            duplicates++;
+            return false;
+        }
+        
+        words[word] |= bit;
+        return true;
+    }
+    
+    public long getHighestSequence() {
+        return highestSequence;
+    }
+    
+    public long getDuplicates() {
+        return duplicates;
+    }
+    
+    /**
+     * Sequences rejected because they were older than the window, so could not be checked
+     */
+    public long getStaleSequences() {
+        return staleSequences;
+    }
+    
+    /**
+     * Sequences the window moved past without seeing
+     */
+    public long getGaps() {
+        return gaps;
+    }
+    
+    public int getWindowBits() {
+        return windowBits;
+    }
+    
+    /**
+     * Move the window up to a new highest sequence, counting the evicted sequences never seen
+     */
+    private void advanceTo(long sequence) {
+        long distance = sequence - highestSequence;
+        
+        if (distance >= windowBits) {
+            long seen = 0;
+            for (long word : words) {
+                seen += Long.bitCount(word);
+            }
+            gaps += (windowBits - seen) + (distance - windowBits);
+            Arrays.fill(words, 0L);
+        } else {
+            for (long evicting = highestSequence + 1; evicting <= sequence; evicting++) {
+                int slot = (int) evicting & mask;
+                long bit = 1L << slot;
+                int word = slot >>> 6;
+                if ((words[word] & bit) == 0) {
+                    gaps++;
+                }
+                words[word] &= ~bit;
+            }
+        }
+        
+        highestSequence = sequence;
+    }
+    
+    private void set(long sequence) {
+        int slot = (int) sequence & mask;
+        words[slot >>> 6] |= 1L << slot;
+    }
+}
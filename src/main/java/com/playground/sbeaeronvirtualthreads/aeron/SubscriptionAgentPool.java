@@ -0,0 +1,113 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.DynamicCompositeAgent;
+import org.agrona.concurrent.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fixed pool of duty-cycle threads hosting any number of subscription agents.
+ *
+ * Each thread runs an {@link AgentRunner} over a {@link DynamicCompositeAgent}. Every duty cycle
+ * it polls each hosted agent in turn, then idles once on the thread's strategy if none of them
+ * found work. Agents are spread across the threads round-robin, so thousands of streams cost
+ * threadCount pollers instead of one thread each. Agents can be added and removed while running.
+ */
+public class SubscriptionAgentPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionAgentPool.class);
+    
+    private final DynamicCompositeAgent[] composites;
+    private final List<AgentRunner> runners = new ArrayList<>();
+    private final Map<Agent, DynamicCompositeAgent> hostedAgents = new IdentityHashMap<>();
+    private int nextComposite;
+    
+    public SubscriptionAgentPool(String roleName, int threadCount, IdleStrategyType idleStrategyType) {
+        this(roleName, threadCount, idleStrategyType, Thread.ofPlatform().factory());
+    }
+    
+    /**
+     * @param roleName name used for the pool's threads and composite agents
+     * @param threadCount number of duty-cycle threads
+     * @param idleStrategyType idle strategy for each thread, shared by all agents on that thread
+     * @param threadFactory factory for the duty-cycle threads, e.g. {@code Thread.ofVirtual().factory()}
+     */
+    public SubscriptionAgentPool(
+        String roleName, int threadCount, IdleStrategyType idleStrategyType, ThreadFactory threadFactory) {
+        this.composites = new DynamicCompositeAgent[threadCount];
+        
+        for (int i = 0; i < threadCount; i++) {
+            composites[i] = new DynamicCompositeAgent(roleName + "-" + i);
+            
+            IdleStrategy idleStrategy = idleStrategyType.newIdleStrategy();
+            AgentRunner runner = new AgentRunner(
+                idleStrategy, error -> log.error("Agent error in {}", roleName, error), null, composites[i]);
+            AgentRunner.startOnThread(runner, threadFactory);
+            runners.add(runner);
+        }
+        
+        log.info("SubscriptionAgentPool {} started with {} threads", roleName, threadCount);
+    }
+    
+    /**
+     * Host an agent, e.g. from {@link AeronSubscriber#asAgent}, on the next thread in turn
+     * @return the index of the thread now running the agent
+     */
+    public synchronized int add(Agent agent) {
+        int index = nextComposite;
+        nextComposite = (nextComposite + 1) % composites.length;
+        
+        DynamicCompositeAgent composite = composites[index];
+        while (!composite.tryAdd(agent)) {
+            Thread.onSpinWait();
+        }
+        while (!composite.hasAddAgentCompleted()) {
+            Thread.yield();
+        }
+        hostedAgents.put(agent, composite);
+        
+        return index;
+    }
+    
+    /**
+     * Stop polling an agent, closing it once removed
+     */
+    public synchronized void remove(Agent agent) {
+        DynamicCompositeAgent composite = hostedAgents.remove(agent);
+        if (composite == null) {
+            return;
+        }
+        
+        while (!composite.tryRemove(agent)) {
+            Thread.onSpinWait();
+        }
+        while (!composite.hasRemoveAgentCompleted()) {
+            Thread.yield();
+        }
+    }
+    
+    public synchronized int getAgentCount() {
+        return hostedAgents.size();
+    }
+    
+    public int getThreadCount() {
+        return composites.length;
+    }
+    
+    /**
+     * Stop the threads and close every hosted agent
+     */
+    @Override
+    public void close() {
+        CloseHelper.closeAll(runners);
+        log.info("SubscriptionAgentPool closed");
+    }
+}
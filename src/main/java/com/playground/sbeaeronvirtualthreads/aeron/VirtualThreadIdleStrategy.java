@@ -0,0 +1,84 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import org.agrona.concurrent.IdleStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy for pollers running on virtual threads.
+ *
+ * Busy spinning keeps the carrier thread occupied and starves every other virtual thread
+ * scheduled on it. This strategy spins only briefly. It then yields, which lets other virtual
+ * threads run on the carrier, and finally parks for exponentially longer periods up to a maximum.
+ * Parking unmounts the virtual thread, so an idle poller costs no carrier time. On a platform
+ * thread it behaves like a backoff strategy with a short spin phase.
+ */
+public class VirtualThreadIdleStrategy implements IdleStrategy {
+    public static final String ALIAS = "virtual-thread-parking";
+    public static final int DEFAULT_MAX_SPINS = 20;
+    public static final int DEFAULT_MAX_YIELDS = 5;
+    public static final long DEFAULT_MIN_PARK_PERIOD_NS = 1_000;
+    public static final long DEFAULT_MAX_PARK_PERIOD_NS = 100_000;
+    
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkPeriodNs;
+    private final long maxParkPeriodNs;
+    
+    private int spins;
+    private int yields;
+    private long parkPeriodNs;
+    
+    public VirtualThreadIdleStrategy() {
+        this(DEFAULT_MAX_SPINS, DEFAULT_MAX_YIELDS, DEFAULT_MIN_PARK_PERIOD_NS, DEFAULT_MAX_PARK_PERIOD_NS);
+    }
+    
+    /**
+     * @param maxSpins idle calls to spin before yielding
+     * @param maxYields idle calls to yield before parking
+     * @param minParkPeriodNs first park period
+     * @param maxParkPeriodNs longest park period, which bounds the added latency once idle
+     */
+    public VirtualThreadIdleStrategy(int maxSpins, int maxYields, long minParkPeriodNs, long maxParkPeriodNs) {
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkPeriodNs = minParkPeriodNs;
+        this.maxParkPeriodNs = maxParkPeriodNs;
+        reset();
+    }
+    
+    @Override
+    public void idle(int workCount) {
+        if (workCount > 0) {
+            reset();
+        } else {
+            idle();
+        }
+    }
+    
+    @Override
+    public void idle() {
+        if (spins < maxSpins) {
+            spins++;
+            Thread.onSpinWait();
+        } else if (yields < maxYields) {
+            yields++;
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(parkPeriodNs);
+            parkPeriodNs = Math.min(parkPeriodNs << 1, maxParkPeriodNs);
+        }
+    }
+    
+    @Override
+    public void reset() {
+        spins = 0;
+        yields = 0;
+        parkPeriodNs = minParkPeriodNs;
+    }
+    
+    @Override
+    public String alias() {
+        return ALIAS;
+    }
+}
@@ -0,0 +1,387 @@
+package com.playground.sbeaeronvirtualthreads.journal;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only journal of SBE encoded trades in memory-mapped segment files.
+ *
+ * Frames are copied once, straight from the received buffer into the mapped segment, and read
+ * back in place, so neither side encodes or stages them. Each record is an 8 byte header holding
+ * the frame length followed by the frame, aligned to 8 bytes. The length is written last with an
+ * ordered store, so a process that dies part way through an append leaves a zero length and the
+ * record is ignored on reopen. A record that does not fit in the rest of a segment is preceded by
+ * a padding marker and written to the next one.
+ *
+ * Every {@code indexInterval} records the timestamp, trade id and position are added to a sparse
+ * index kept in memory and rebuilt by scanning the segments on open. Seeks binary search the index,
+ * then scan at most one interval, so they assume timestamps and trade ids only increase.
+ *
+ * Positions are offsets across the whole journal. Use it as a {@link FragmentHandler}, for example
+ * registered for trades on a {@code MessageDispatcher}, to journal frames as they arrive. Not
+ * thread safe; appends and replays must come from one thread.
+ */
+public class TradeJournal implements FragmentHandler, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TradeJournal.class);
+    
+    public static final int DEFAULT_SEGMENT_LENGTH = 64 * 1024 * 1024;
+    public static final int DEFAULT_INDEX_INTERVAL = 64;
+    public static final int RECORD_HEADER_LENGTH = 8;
+    public static final int RECORD_ALIGNMENT = 8;
+    
+    private static final int PADDING_LENGTH = -1;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    
+    /**
+     * Receives journalled frames in place. The buffer is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface FrameHandler {
+        /**
+         * @param position the journal position of the record, usable to resume a later replay
+         */
+        void onFrame(DirectBuffer buffer, int offset, int length, long position);
+    }
+    
+    private final File directory;
+    private final int segmentLength;
+    private final int indexInterval;
+    private final List<MappedByteBuffer> mappedSegments = new ArrayList<>();
+    private final List<UnsafeBuffer> segments = new ArrayList<>();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final TradeMessageDecoder tradeDecoder = new TradeMessageDecoder();
+    
+    private long[] indexTimestamps = new long[INITIAL_INDEX_CAPACITY];
+    private long[] indexTradeIds = new long[INITIAL_INDEX_CAPACITY];
+    private long[] indexPositions = new long[INITIAL_INDEX_CAPACITY];
+    private int indexSize;
+    
+    private UnsafeBuffer tail;
+    private int tailOffset;
+    private long recordCount;
+    
+    public TradeJournal(File directory) {
+        this(directory, DEFAULT_SEGMENT_LENGTH, DEFAULT_INDEX_INTERVAL);
+    }
+    
+    /**
+     * Open a journal, recovering any records already in the directory
+     * @param segmentLength the length of each segment file, a multiple of {@link #RECORD_ALIGNMENT}
+     * @param indexInterval the number of records between sparse index entries
+     */
+    public TradeJournal(File directory, int segmentLength, int indexInterval) {
+        if (segmentLength <= RECORD_HEADER_LENGTH || segmentLength % RECORD_ALIGNMENT != 0) {
+            throw new IllegalArgumentException("Segment length must be a multiple of " + RECORD_ALIGNMENT +
+                " greater than " + RECORD_HEADER_LENGTH + ": " + segmentLength);
+        }
+        if (indexInterval <= 0) {
+            throw new IllegalArgumentException("Index interval must be positive: " + indexInterval);
+        }
+        
+        this.directory = directory;
+        this.segmentLength = segmentLength;
+        this.indexInterval = indexInterval;
+        
+        IoUtil.ensureDirectoryExists(directory, "journal");
+        recover();
+        
+        log.info("TradeJournal opened in {} with {} records in {} segments", directory, recordCount, segments.size());
+    }
+    
+    /**
+     * Append an SBE encoded TradeMessage frame, copying it straight into the mapped segment
+     * @return the journal position of the record
+     * @throws IllegalArgumentException if the frame is not a TradeMessage or is longer than a segment holds
+     */
+    public long append(DirectBuffer buffer, int offset, int length) {
+        if (length > maxFrameLength()) {
+            throw new IllegalArgumentException("Frame of " + length + " bytes exceeds max " + maxFrameLength());
+        }
+        wrapTrade(buffer, offset, length);
+        
+        int recordLength = BitUtil.align(RECORD_HEADER_LENGTH + length, RECORD_ALIGNMENT);
+        if (tailOffset + recordLength > segmentLength) {
+            if (tailOffset < segmentLength) {
+                tail.putIntOrdered(tailOffset, PADDING_LENGTH);
+            }
+            newSegment();
+        }
+        
+        long position = position(segments.size() - 1, tailOffset);
+        tail.putBytes(tailOffset + RECORD_HEADER_LENGTH, buffer, offset, length);
+        tail.putIntOrdered(tailOffset, length);
+        tailOffset += recordLength;
+        
+        index(position);
+        return position;
+    }
+    
+    /**
+     * Journal a received fragment. Only register this for TradeMessage frames.
+     */
+    @Override
+    public void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        append(buffer, offset, length);
+    }
+    
+    /**
+     * Replay every record from a position to the end of the journal
+     * @param position a record position, e.g. from {@link #append} or a seek; 0 for the start
+     * @return the number of frames replayed
+     */
+    public long replay(long position, FrameHandler handler) {
+        long frames = 0;
+        
+        while ((position = nextRecord(position)) >= 0) {
+            UnsafeBuffer segment = segments.get(segmentIndex(position));
+            int offset = segmentOffset(position);
+            int length = segment.getInt(offset);
+            
+            handler.onFrame(segment, offset + RECORD_HEADER_LENGTH, length, position);
+            position += BitUtil.align(RECORD_HEADER_LENGTH + length, RECORD_ALIGNMENT);
+            frames++;
+        }
+        
+        return frames;
+    }
+    
+    /**
+     * Replay every record from a position into a publisher, which applies its back-pressure policy
+     * @return the number of frames replayed
+     */
+    public long replay(long position, AeronPublisher publisher) {
+        return replay(position, (buffer, offset, length, framePosition) -> publisher.publish(buffer, offset, length));
+    }
+    
+    /**
+     * Position of the first trade stamped at or after the timestamp, or {@link #position()} if none is
+     */
+    public long seekTimestamp(long timestamp) {
+        int entry = lastIndexEntryBefore(indexTimestamps, timestamp);
+        return seek(entry < 0 ? 0 : indexPositions[entry], timestamp, true);
+    }
+    
+    /**
+     * Position of the first trade with an id at or after the given one, or {@link #position()} if none is
+     */
+    public long seekTradeId(long tradeId) {
+        int entry = lastIndexEntryBefore(indexTradeIds, tradeId);
+        return seek(entry < 0 ? 0 : indexPositions[entry], tradeId, false);
+    }
+    
+    /**
+     * Position the next record will be appended at
+     */
+    public long position() {
+        return position(segments.size() - 1, tailOffset);
+    }
+    
+    /**
+     * Flush the mapped segments to disk. Appends survive a process crash without this, as they
+     * are already in the page cache, but not the loss of the host.
+     */
+    public void force() {
+        for (MappedByteBuffer mappedSegment : mappedSegments) {
+            mappedSegment.force();
+        }
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    public int getIndexSize() {
+        return indexSize;
+    }
+    
+    public int maxFrameLength() {
+        return segmentLength - RECORD_HEADER_LENGTH;
+    }
+    
+    @Override
+    public void close() {
+        for (MappedByteBuffer mappedSegment : mappedSegments) {
+            IoUtil.unmap(mappedSegment);
+        }
+        mappedSegments.clear();
+        segments.clear();
+        log.info("TradeJournal closed with {} records", recordCount);
+    }
+    
+    /**
+     * Map the existing segments in order and scan them to find the tail and rebuild the index
+     */
+    private void recover() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                if (file.length() != segmentLength) {
+                    throw new IllegalStateException(
+                        "Segment " + file + " is " + file.length() + " bytes, expected " + segmentLength);
+                }
+                mapSegment(IoUtil.mapExistingFile(file, "journal segment"));
+            }
+        }
+        
+        if (segments.isEmpty()) {
+            newSegment();
+            return;
+        }
+        
+        replay(0, (buffer, offset, length, position) -> {
+            wrapTrade(buffer, offset, length);
+            index(position);
+        });
+        
+        // Earlier segments end in padding, so appends continue after the last record of the last one
+        tailOffset = 0;
+        int length;
+        while (tailOffset < segmentLength && (length = tail.getIntVolatile(tailOffset)) > 0) {
+            tailOffset += BitUtil.align(RECORD_HEADER_LENGTH + length, RECORD_ALIGNMENT);
+        }
+    }
+    
+    private void newSegment() {
+        File file = new File(directory, String.format("segment-%08d%s", segments.size(), SEGMENT_SUFFIX));
+        mapSegment(IoUtil.mapNewFile(file, segmentLength, false));
+        tailOffset = 0;
+    }
+    
+    private void mapSegment(MappedByteBuffer mappedSegment) {
+        mappedSegments.add(mappedSegment);
+        tail = new UnsafeBuffer(mappedSegment);
+        segments.add(tail);
+    }
+    
+    private void wrapTrade(DirectBuffer buffer, int offset, int length) {
+        if (length < MessageHeaderDecoder.ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Frame of " + length + " bytes is too short for a message header");
+        }
+        
+        headerDecoder.wrap(buffer, offset);
+        if (headerDecoder.schemaId() != MessageHeaderDecoder.SCHEMA_ID ||
+            headerDecoder.templateId() != TradeMessageDecoder.TEMPLATE_ID) {
+            throw new IllegalArgumentException("Frame is not a TradeMessage: schemaId=" + headerDecoder.schemaId() +
+                " templateId=" + headerDecoder.templateId());
+        }
+        
+        tradeDecoder.wrap(buffer, offset + MessageHeaderDecoder.ENCODED_LENGTH,
+            headerDecoder.blockLength(), headerDecoder.version());
+    }
+    
+    /**
+     * Count the record wrapped by the trade decoder, adding it to the index every interval
+     */
+    private void index(long position) {
+        if (recordCount++ % indexInterval != 0) {
+            return;
+        }
+        
+        if (indexSize == indexPositions.length) {
+            int capacity = indexSize * 2;
+            indexTimestamps = Arrays.copyOf(indexTimestamps, capacity);
+            indexTradeIds = Arrays.copyOf(indexTradeIds, capacity);
+            indexPositions = Arrays.copyOf(indexPositions, capacity);
+        }
+        
+        indexTimestamps[indexSize] = tradeDecoder.timestamp();
+        indexTradeIds[indexSize] = tradeDecoder.tradeId();
+        indexPositions[indexSize] = position;
+        indexSize++;
+    }
+    
+    /**
+     * Index of the last entry whose key is below the target, or -1 if there is none
+     */
+    private int lastIndexEntryBefore(long[] keys, long target) {
+        int low = 0;
+        int high = indexSize - 1;
+        
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+    
+    /**
+     * Scan forward from a position for the first trade whose timestamp or id reaches the target
+     */
+    private long seek(long position, long target, boolean byTimestamp) {
+        while ((position = nextRecord(position)) >= 0) {
+            UnsafeBuffer segment = segments.get(segmentIndex(position));
+            int offset = segmentOffset(position);
+            int length = segment.getInt(offset);
+            
+            wrapTrade(segment, offset + RECORD_HEADER_LENGTH, length);
+            if ((byTimestamp ? tradeDecoder.timestamp() : tradeDecoder.tradeId()) >= target) {
+                return position;
+            }
+            position += BitUtil.align(RECORD_HEADER_LENGTH + length, RECORD_ALIGNMENT);
+        }
+        
+        return position();
+    }
+    
+    /**
+     * Position of the first record at or after the given one, stepping over padding into the next
+     * segment, or -1 at the end of the journal
+     */
+    private long nextRecord(long position) {
+        int segmentIndex = segmentIndex(position);
+        int offset = segmentOffset(position);
+        
+        while (segmentIndex < segments.size()) {
+            UnsafeBuffer segment = segments.get(segmentIndex);
+            int length = segment.getIntVolatile(offset);
+            
+            if (length > 0) {
+                return position(segmentIndex, offset);
+            }
+            if (length == 0 && segment == tail) {
+                return -1;
+            }
+            segmentIndex++;
+            offset = 0;
+        }
+        
+        return -1;
+    }
+    
+    private int segmentIndex(long position) {
+        return (int) (position / segmentLength);
+    }
+    
+    private int segmentOffset(long position) {
+        return (int) (position % segmentLength);
+    }
+    
+    private long position(int segmentIndex, int offset) {
+        return (long) segmentIndex * segmentLength + offset;
+    }
+}
@@ -0,0 +1,66 @@
+package com.playground.sbeaeronvirtualthreads.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point decimal value equal to mantissa * 10^exponent.
+ *
+ * Values sharing an exponent compare and aggregate as plain longs, which is what matching and
+ * aggregation code wants. Like {@link BigDecimal}, equality includes the exponent, so 1.50 and
+ * 1.5 are equal by {@link #compareTo} but not by {@link #equals}.
+ */
+public record Decimal64(long mantissa, int exponent) implements Comparable<Decimal64> {
+    public static final int MAX_EXPONENT = 18;
+    
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+        100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+        100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    
+    public Decimal64 {
+        if (exponent < -MAX_EXPONENT || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException("Exponent out of range: " + exponent);
+        }
+    }
+    
+    /**
+     * Round a double to the nearest multiple of 10^exponent
+     * @param value the value to convert
+     * @param exponent the exponent of the result, e.g. -4 for four decimal places
+     */
+    public static Decimal64 fromDouble(double value, int exponent) {
+        if (exponent <= 0) {
+            return new Decimal64(Math.round(value * POWERS_OF_TEN[-exponent]), exponent);
+        }
+        return new Decimal64(Math.round(value / POWERS_OF_TEN[exponent]), exponent);
+    }
+    
+    /**
+     * Nearest double to this value when the mantissa is below 2^53, since both operands are then exact
+     */
+    public double toDouble() {
+        if (exponent <= 0) {
+            return mantissa / (double) POWERS_OF_TEN[-exponent];
+        }
+        return mantissa * (double) POWERS_OF_TEN[exponent];
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(mantissa, -exponent);
+    }
+    
+    @Override
+    public int compareTo(Decimal64 other) {
+        if (exponent == other.exponent) {
+            return Long.compare(mantissa, other.mantissa);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
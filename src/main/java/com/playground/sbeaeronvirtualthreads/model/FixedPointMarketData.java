@@ -0,0 +1,36 @@
+package com.playground.sbeaeronvirtualthreads.model;
+
+/**
+ * Represents market data snapshot with fixed-point prices
+ */
+public record FixedPointMarketData(
+    long timestamp,
+    Decimal64 bidPrice,
+    Decimal64 askPrice,
+    int bidSize,
+    int askSize,
+    String symbol
+) {
+    public static FixedPointMarketData create(
+        String symbol, Decimal64 bidPrice, Decimal64 askPrice, int bidSize, int askSize) {
+        return new FixedPointMarketData(System.nanoTime(), bidPrice, askPrice, bidSize, askSize, symbol);
+    }
+    
+    /**
+     * Convert a snapshot, rounding its prices to the given exponent
+     */
+    public static FixedPointMarketData from(MarketData marketData, int priceExponent) {
+        return new FixedPointMarketData(
+            marketData.timestamp(),
+            Decimal64.fromDouble(marketData.bidPrice(), priceExponent),
+            Decimal64.fromDouble(marketData.askPrice(), priceExponent),
+            marketData.bidSize(),
+            marketData.askSize(),
+            marketData.symbol()
+        );
+    }
+    
+    public MarketData toMarketData() {
+        return new MarketData(timestamp, bidPrice.toDouble(), askPrice.toDouble(), bidSize, askSize, symbol);
+    }
+}
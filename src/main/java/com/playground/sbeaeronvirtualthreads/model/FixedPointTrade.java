@@ -0,0 +1,38 @@
+package com.playground.sbeaeronvirtualthreads.model;
+
+/**
+ * Represents a trade message with a fixed-point price
+ */
+public record FixedPointTrade(
+    long tradeId,
+    long timestamp,
+    Decimal64 price,
+    int quantity,
+    char side,
+    String symbol,
+    String counterparty
+) {
+    public static FixedPointTrade create(
+        long tradeId, String symbol, Decimal64 price, int quantity, char side, String counterparty) {
+        return new FixedPointTrade(tradeId, System.nanoTime(), price, quantity, side, symbol, counterparty);
+    }
+    
+    /**
+     * Convert a trade, rounding its price to the given exponent
+     */
+    public static FixedPointTrade from(Trade trade, int priceExponent) {
+        return new FixedPointTrade(
+            trade.tradeId(),
+            trade.timestamp(),
+            Decimal64.fromDouble(trade.price(), priceExponent),
+            trade.quantity(),
+            trade.side(),
+            trade.symbol(),
+            trade.counterparty()
+        );
+    }
+    
+    public Trade toTrade() {
+        return new Trade(tradeId, timestamp, price.toDouble(), quantity, side, symbol, counterparty);
+    }
+}
@@ -1,14 +1,19 @@
 package com.playground.sbeaeronvirtualthreads.monitoring;
 
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.ThreadMXBean;
 import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Utility for monitoring resource usage
  */
 public class ResourceMonitor {
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    
     private final MemoryMXBean memoryBean;
     private final ThreadMXBean threadBean;
     private final OperatingSystemMXBean osBean;
@@ -24,18 +29,59 @@ public class ResourceMonitor {
             memoryBean.getHeapMemoryUsage().getUsed(),
             memoryBean.getHeapMemoryUsage().getMax(),
             memoryBean.getNonHeapMemoryUsage().getUsed(),
+            getResidentSetSize(),
             threadBean.getThreadCount(),
             threadBean.getPeakThreadCount(),
             osBean.getSystemLoadAverage(),
+            getProcessCpuTime(),
             System.nanoTime()
         );
     }
     
+    /**
+     * CPU time used by the process in nanoseconds, or -1 where the JVM does not report it
+     */
+    public long getProcessCpuTime() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean sunOsBean) {
+            return sunOsBean.getProcessCpuTime();
+        }
+        return -1;
+    }
+    
+    /**
+     * Resident set size of the process in bytes, including the off-heap and mapped memory that
+     * Aeron uses, or -1 where /proc is not available
+     */
+    public long getResidentSetSize() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux, or an unexpected format
+        }
+        return -1;
+    }
+    
+    /**
+     * Average number of cores the process kept busy between two snapshots, or -1 if unknown
+     */
+    public double getCpuUtilisation(ResourceSnapshot before, ResourceSnapshot after) {
+        long durationNanos = after.timestamp() - before.timestamp();
+        if (before.processCpuTime() < 0 || after.processCpuTime() < 0 || durationNanos <= 0) {
+            return -1;
+        }
+        return (double) (after.processCpuTime() - before.processCpuTime()) / durationNanos;
+    }
+    
     public void printSnapshot(ResourceSnapshot snapshot, String label) {
         System.out.println("\n=== " + label + " ===");
         System.out.println("Heap Used: " + (snapshot.heapUsed() / 1024 / 1024) + " MB");
         System.out.println("Heap Max: " + (snapshot.heapMax() / 1024 / 1024) + " MB");
         System.out.println("Non-Heap Used: " + (snapshot.nonHeapUsed() / 1024 / 1024) + " MB");
+        System.out.println("Resident Set Size: " + (snapshot.residentSetSize() / 1024 / 1024) + " MB");
         System.out.println("Thread Count: " + snapshot.threadCount());
         System.out.println("Peak Thread Count: " + snapshot.peakThreadCount());
         System.out.println("System Load Average: " + String.format("%.2f", snapshot.systemLoadAverage()));
@@ -43,22 +89,28 @@ public class ResourceMonitor {
     
     public void printDifference(ResourceSnapshot before, ResourceSnapshot after, String label) {
         long heapDiff = after.heapUsed() - before.heapUsed();
+        long rssDiff = after.residentSetSize() - before.residentSetSize();
         int threadDiff = after.threadCount() - before.threadCount();
         long durationNanos = after.timestamp() - before.timestamp();
         
         System.out.println("\n=== " + label + " - Difference ===");
         System.out.println("Heap Change: " + (heapDiff / 1024 / 1024) + " MB");
+        System.out.println("RSS Change: " + (rssDiff / 1024 / 1024) + " MB");
         System.out.println("Thread Count Change: " + threadDiff);
         System.out.println("Duration: " + (durationNanos / 1_000_000) + " ms");
+        System.out.println("CPU Time: " + ((after.processCpuTime() - before.processCpuTime()) / 1_000_000) + " ms");
+        System.out.println("CPU Utilisation: " + String.format("%.2f", getCpuUtilisation(before, after)) + " cores");
     }
     
     public record ResourceSnapshot(
         long heapUsed,
         long heapMax,
         long nonHeapUsed,
+        long residentSetSize,
         int threadCount,
         int peakThreadCount,
         double systemLoadAverage,
+        long processCpuTime,
         long timestamp
     ) {}
 }
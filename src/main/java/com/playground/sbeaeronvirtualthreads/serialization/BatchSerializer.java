@@ -0,0 +1,32 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import org.agrona.MutableDirectBuffer;
+
+import java.util.List;
+
+/**
+ * Interface for serializers that pack a run of messages from a list into a single message,
+ * so a publisher can fill each frame without knowing the message type
+ */
+public interface BatchSerializer<T> {
+    /**
+     * Count how many messages starting at fromIndex can be encoded into one message of at most maxLength bytes
+     * @param messages the messages to send
+     * @param fromIndex the index of the first message not yet sent
+     * @param maxCount the largest batch wanted, at least one
+     * @param maxLength the frame budget, usually the publication's max payload length
+     * @return the batch size, which is at least one while messages remain even if that message alone is too large
+     */
+    int batchSize(List<T> messages, int fromIndex, int maxCount, int maxLength);
+    
+    /**
+     * Exact encoded length of messages [fromIndex, fromIndex + count) as a single message
+     */
+    int encodedLength(List<T> messages, int fromIndex, int count);
+    
+    /**
+     * Encode messages [fromIndex, fromIndex + count) as a single message
+     * @return the encoded length
+     */
+    int serializeBatch(List<T> messages, int fromIndex, int count, MutableDirectBuffer buffer, int offset);
+}
@@ -0,0 +1,35 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+/**
+ * Shared helpers for computing encoded sizes without encoding
+ */
+final class EncodingUtil {
+    
+    private EncodingUtil() {
+    }
+    
+    /**
+     * Number of bytes {@code value.toString().getBytes(UTF_8)} produces, without allocating.
+     * Surrogate pairs take 4 bytes and unpaired surrogates are replaced by a single '?' byte.
+     */
+    static int utf8Length(CharSequence value) {
+        int length = value.length();
+        int bytes = length;
+        
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        
+        return bytes;
+    }
+}
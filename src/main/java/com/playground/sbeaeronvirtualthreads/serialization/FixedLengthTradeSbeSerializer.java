@@ -0,0 +1,127 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedLengthTradeMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedLengthTradeMessageEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * SBE serializer for trades using fixed-length ASCII symbol and counterparty fields.
+ *
+ * Every field sits at a fixed offset and every message has the same length, so fields can be
+ * read in any order and a subscriber can check the symbol with {@link #symbolEquals} without
+ * decoding the message. Symbols longer than {@link #MAX_SYMBOL_LENGTH} or counterparties longer
+ * than {@link #MAX_COUNTERPARTY_LENGTH} bytes cannot be encoded. Shorter values are padded with nulls.
+ */
+public class FixedLengthTradeSbeSerializer implements MessageSerializer<Trade> {
+    public static final int MAX_SYMBOL_LENGTH = FixedLengthTradeMessageEncoder.symbolLength();
+    public static final int MAX_COUNTERPARTY_LENGTH = FixedLengthTradeMessageEncoder.counterpartyLength();
+    public static final int ENCODED_LENGTH =
+        MessageHeaderEncoder.ENCODED_LENGTH + FixedLengthTradeMessageEncoder.BLOCK_LENGTH;
+    
+    private static final int SYMBOL_OFFSET =
+        MessageHeaderDecoder.ENCODED_LENGTH + FixedLengthTradeMessageDecoder.symbolEncodingOffset();
+    
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final FixedLengthTradeMessageEncoder encoder = new FixedLengthTradeMessageEncoder();
+    private final FixedLengthTradeMessageDecoder decoder = new FixedLengthTradeMessageDecoder();
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public FixedLengthTradeSbeSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public FixedLengthTradeSbeSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
+    
+    @Override
+    public int serialize(Trade message, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        encoder.tradeId(message.tradeId());
+        encoder.timestamp(message.timestamp());
+        encoder.price(message.price());
+        encoder.quantity(message.quantity());
+        encoder.side((byte) message.side());
+        encoder.symbol(message.symbol());
+        encoder.counterparty(message.counterparty());
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public Trade deserialize(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        long tradeId = decoder.tradeId();
+        long timestamp = decoder.timestamp();
+        double price = decoder.price();
+        int quantity = decoder.quantity();
+        char side = (char) decoder.side();
+        String symbol = readFixed(
+            buffer, decoder.offset() + FixedLengthTradeMessageDecoder.symbolEncodingOffset(),
+            MAX_SYMBOL_LENGTH, symbolInterner);
+        String counterparty = readFixed(
+            buffer, decoder.offset() + FixedLengthTradeMessageDecoder.counterpartyEncodingOffset(),
+            MAX_COUNTERPARTY_LENGTH, counterpartyInterner);
+        
+        return new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
+    }
+    
+    @Override
+    public int encodedLength(Trade message) {
+        return ENCODED_LENGTH;
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE-Fixed";
+    }
+    
+    /**
+     * Compare the symbol of an encoded message without decoding it
+     * @param buffer the buffer containing the message
+     * @param offset the offset of the message header in the buffer
+     * @param symbol the ASCII bytes of the symbol to compare against
+     * @return true if the message carries exactly this symbol
+     */
+    public static boolean symbolEquals(DirectBuffer buffer, int offset, byte[] symbol) {
+        if (symbol.length > MAX_SYMBOL_LENGTH) {
+            return false;
+        }
+        
+        int symbolOffset = offset + SYMBOL_OFFSET;
+        for (int i = 0; i < symbol.length; i++) {
+            if (buffer.getByte(symbolOffset + i) != symbol[i]) {
+                return false;
+            }
+        }
+        return symbol.length == MAX_SYMBOL_LENGTH || buffer.getByte(symbolOffset + symbol.length) == 0;
+    }
+    
+    /**
+     * Offset of the symbol bytes for a message whose header starts at the given offset
+     */
+    public static int symbolOffset(int offset) {
+        return offset + SYMBOL_OFFSET;
+    }
+    
+    private static String readFixed(DirectBuffer buffer, int offset, int maxLength, StringInterner interner) {
+        int length = 0;
+        while (length < maxLength && buffer.getByte(offset + length) != 0) {
+            length++;
+        }
+        return interner.intern(buffer, offset, length);
+    }
+}
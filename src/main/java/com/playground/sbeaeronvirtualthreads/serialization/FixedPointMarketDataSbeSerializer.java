@@ -0,0 +1,83 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Decimal64;
+import com.playground.sbeaeronvirtualthreads.model.FixedPointMarketData;
+import com.playground.sbeaeronvirtualthreads.sbe.Decimal64Decoder;
+import com.playground.sbeaeronvirtualthreads.sbe.Decimal64Encoder;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedPointMarketDataMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedPointMarketDataMessageEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * SBE serializer for market data with decimal64 mantissa/exponent prices
+ */
+public class FixedPointMarketDataSbeSerializer implements MessageSerializer<FixedPointMarketData> {
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final FixedPointMarketDataMessageEncoder encoder = new FixedPointMarketDataMessageEncoder();
+    private final FixedPointMarketDataMessageDecoder decoder = new FixedPointMarketDataMessageDecoder();
+    private final StringInterner symbolInterner;
+    
+    public FixedPointMarketDataSbeSerializer() {
+        this(StringInterner.NONE);
+    }
+    
+    public FixedPointMarketDataSbeSerializer(StringInterner symbolInterner) {
+        this.symbolInterner = symbolInterner;
+    }
+    
+    @Override
+    public int serialize(FixedPointMarketData message, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        encoder.timestamp(message.timestamp());
+        encodePrice(encoder.bidPrice(), message.bidPrice());
+        encodePrice(encoder.askPrice(), message.askPrice());
+        encoder.bidSize(message.bidSize());
+        encoder.askSize(message.askSize());
+        encoder.symbol(message.symbol());
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public FixedPointMarketData deserialize(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        long timestamp = decoder.timestamp();
+        Decimal64 bidPrice = decodePrice(decoder.bidPrice());
+        Decimal64 askPrice = decodePrice(decoder.askPrice());
+        int bidSize = decoder.bidSize();
+        int askSize = decoder.askSize();
+        
+        int symbolLength = decoder.symbolLength();
+        String symbol = symbolInterner.intern(
+            buffer, decoder.limit() + FixedPointMarketDataMessageDecoder.symbolHeaderLength(), symbolLength);
+        decoder.skipSymbol();
+        
+        return new FixedPointMarketData(timestamp, bidPrice, askPrice, bidSize, askSize, symbol);
+    }
+    
+    @Override
+    public int encodedLength(FixedPointMarketData message) {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+            FixedPointMarketDataMessageEncoder.BLOCK_LENGTH +
+            FixedPointMarketDataMessageEncoder.symbolHeaderLength() + EncodingUtil.utf8Length(message.symbol());
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE-FixedPoint";
+    }
+    
+    private static void encodePrice(Decimal64Encoder priceEncoder, Decimal64 price) {
+        priceEncoder.mantissa(price.mantissa()).exponent((byte) price.exponent());
+    }
+    
+    private static Decimal64 decodePrice(Decimal64Decoder priceDecoder) {
+        return new Decimal64(priceDecoder.mantissa(), priceDecoder.exponent());
+    }
+}
@@ -0,0 +1,90 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Decimal64;
+import com.playground.sbeaeronvirtualthreads.model.FixedPointTrade;
+import com.playground.sbeaeronvirtualthreads.sbe.Decimal64Decoder;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedPointTradeMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedPointTradeMessageEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * SBE serializer for trades with a decimal64 mantissa/exponent price
+ */
+public class FixedPointTradeSbeSerializer implements MessageSerializer<FixedPointTrade> {
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final FixedPointTradeMessageEncoder encoder = new FixedPointTradeMessageEncoder();
+    private final FixedPointTradeMessageDecoder decoder = new FixedPointTradeMessageDecoder();
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public FixedPointTradeSbeSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public FixedPointTradeSbeSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
+    
+    @Override
+    public int serialize(FixedPointTrade message, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        encoder.tradeId(message.tradeId());
+        encoder.timestamp(message.timestamp());
+        encoder.price()
+            .mantissa(message.price().mantissa())
+            .exponent((byte) message.price().exponent());
+        encoder.quantity(message.quantity());
+        encoder.side((byte) message.side());
+        encoder.symbol(message.symbol());
+        encoder.counterparty(message.counterparty());
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public FixedPointTrade deserialize(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        long tradeId = decoder.tradeId();
+        long timestamp = decoder.timestamp();
+        Decimal64Decoder priceDecoder = decoder.price();
+        Decimal64 price = new Decimal64(priceDecoder.mantissa(), priceDecoder.exponent());
+        int quantity = decoder.quantity();
+        char side = (char) decoder.side();
+        
+        int symbolLength = decoder.symbolLength();
+        String symbol = symbolInterner.intern(
+            buffer, decoder.limit() + FixedPointTradeMessageDecoder.symbolHeaderLength(), symbolLength);
+        decoder.skipSymbol();
+        
+        int counterpartyLength = decoder.counterpartyLength();
+        String counterparty = counterpartyInterner.intern(
+            buffer, decoder.limit() + FixedPointTradeMessageDecoder.counterpartyHeaderLength(), counterpartyLength);
+        decoder.skipCounterparty();
+        
+        return new FixedPointTrade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
+    }
+    
+    @Override
+    public int encodedLength(FixedPointTrade message) {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+            FixedPointTradeMessageEncoder.BLOCK_LENGTH +
+            FixedPointTradeMessageEncoder.symbolHeaderLength() + EncodingUtil.utf8Length(message.symbol()) +
+            FixedPointTradeMessageEncoder.counterpartyHeaderLength() + EncodingUtil.utf8Length(message.counterparty());
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE-FixedPoint";
+    }
+}
@@ -0,0 +1,42 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.io.IOException;
+
+/**
+ * JSON serializer for MarketData messages using Jackson
+ */
+public class MarketDataJsonSerializer implements MessageSerializer<MarketData> {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Override
+    public int serialize(MarketData message, MutableDirectBuffer buffer, int offset) {
+        try {
+            byte[] jsonBytes = objectMapper.writeValueAsBytes(message);
+            buffer.putBytes(offset, jsonBytes);
+            return jsonBytes.length;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize market data to JSON", e);
+        }
+    }
+    
+    @Override
+    public MarketData deserialize(DirectBuffer buffer, int offset, int length) {
+        try {
+            byte[] jsonBytes = new byte[length];
+            buffer.getBytes(offset, jsonBytes);
+            return objectMapper.readValue(jsonBytes, MarketData.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize market data from JSON", e);
+        }
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "JSON";
+    }
+}
@@ -0,0 +1,56 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.proto.MarketDataMessage;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.io.IOException;
+
+/**
+ * Protobuf serializer for MarketData messages
+ */
+public class MarketDataProtobufSerializer implements MessageSerializer<MarketData> {
+    
+    @Override
+    public int serialize(MarketData message, MutableDirectBuffer buffer, int offset) {
+        MarketDataMessage protoMsg = MarketDataMessage.newBuilder()
+            .setTimestamp(message.timestamp())
+            .setBidPrice(message.bidPrice())
+            .setAskPrice(message.askPrice())
+            .setBidSize(message.bidSize())
+            .setAskSize(message.askSize())
+            .setSymbol(message.symbol())
+            .build();
+        
+        byte[] protoBytes = protoMsg.toByteArray();
+        buffer.putBytes(offset, protoBytes);
+        return protoBytes.length;
+    }
+    
+    @Override
+    public MarketData deserialize(DirectBuffer buffer, int offset, int length) {
+        try {
+            byte[] protoBytes = new byte[length];
+            buffer.getBytes(offset, protoBytes);
+            
+            MarketDataMessage protoMsg = MarketDataMessage.parseFrom(protoBytes);
+            
+            return new MarketData(
+                protoMsg.getTimestamp(),
+                protoMsg.getBidPrice(),
+                protoMsg.getAskPrice(),
+                protoMsg.getBidSize(),
+                protoMsg.getAskSize(),
+                protoMsg.getSymbol()
+            );
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize market data from Protobuf", e);
+        }
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "Protobuf";
+    }
+}
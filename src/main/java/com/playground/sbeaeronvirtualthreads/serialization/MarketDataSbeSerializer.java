@@ -0,0 +1,72 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.sbe.MarketDataMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MarketDataMessageEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * SBE serializer for MarketData messages, resolving decoded symbols through a {@link StringInterner}
+ */
+public class MarketDataSbeSerializer implements MessageSerializer<MarketData> {
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final MarketDataMessageEncoder encoder = new MarketDataMessageEncoder();
+    private final MarketDataMessageDecoder decoder = new MarketDataMessageDecoder();
+    private final StringInterner symbolInterner;
+    
+    public MarketDataSbeSerializer() {
+        this(StringInterner.NONE);
+    }
+    
+    public MarketDataSbeSerializer(StringInterner symbolInterner) {
+        this.symbolInterner = symbolInterner;
+    }
+    
+    @Override
+    public int serialize(MarketData message, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        encoder.timestamp(message.timestamp());
+        encoder.bidPrice(message.bidPrice());
+        encoder.askPrice(message.askPrice());
+        encoder.bidSize(message.bidSize());
+        encoder.askSize(message.askSize());
+        encoder.symbol(message.symbol());
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public MarketData deserialize(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        long timestamp = decoder.timestamp();
+        double bidPrice = decoder.bidPrice();
+        double askPrice = decoder.askPrice();
+        int bidSize = decoder.bidSize();
+        int askSize = decoder.askSize();
+        
+        int symbolLength = decoder.symbolLength();
+        String symbol = symbolInterner.intern(
+            buffer, decoder.limit() + MarketDataMessageDecoder.symbolHeaderLength(), symbolLength);
+        decoder.skipSymbol();
+        
+        return new MarketData(timestamp, bidPrice, askPrice, bidSize, askSize, symbol);
+    }
+    
+    @Override
+    public int encodedLength(MarketData message) {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+            MarketDataMessageEncoder.BLOCK_LENGTH +
+            MarketDataMessageEncoder.symbolHeaderLength() + EncodingUtil.utf8Length(message.symbol());
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE";
+    }
+}
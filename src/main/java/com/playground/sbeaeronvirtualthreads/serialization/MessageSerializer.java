@@ -25,6 +25,16 @@ public interface MessageSerializer<T> {
      */
     T deserialize(DirectBuffer buffer, int offset, int length);
     
+    /**
+     * Get the exact number of bytes {@link #serialize} will write for the message without encoding it.
+     * Publishers use this to claim space in the log buffer up front.
+     * @param message the message to measure
+     * @return the encoded length in bytes, or -1 if it is not known in advance
+     */
+    default int encodedLength(T message) {
+        return -1;
+    }
+    
     /**
      * Get the name of this serialization format
      */
@@ -0,0 +1,60 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.PerformanceMetrics;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.PerformanceMetricsDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.PerformanceMetricsEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * SBE serializer for PerformanceMetrics messages
+ */
+public class PerformanceMetricsSbeSerializer implements MessageSerializer<PerformanceMetrics> {
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final PerformanceMetricsEncoder encoder = new PerformanceMetricsEncoder();
+    private final PerformanceMetricsDecoder decoder = new PerformanceMetricsDecoder();
+    
+    @Override
+    public int serialize(PerformanceMetrics message, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        encoder.messageCount(message.messageCount());
+        encoder.totalBytes(message.totalBytes());
+        encoder.averageLatencyNanos(message.averageLatencyNanos());
+        encoder.minLatencyNanos(message.minLatencyNanos());
+        encoder.maxLatencyNanos(message.maxLatencyNanos());
+        encoder.testName(message.testName());
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public PerformanceMetrics deserialize(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        long messageCount = decoder.messageCount();
+        long totalBytes = decoder.totalBytes();
+        long averageLatencyNanos = decoder.averageLatencyNanos();
+        long minLatencyNanos = decoder.minLatencyNanos();
+        long maxLatencyNanos = decoder.maxLatencyNanos();
+        String testName = decoder.testName();
+        
+        return new PerformanceMetrics(
+            messageCount, totalBytes, averageLatencyNanos, minLatencyNanos, maxLatencyNanos, testName);
+    }
+    
+    @Override
+    public int encodedLength(PerformanceMetrics message) {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+            PerformanceMetricsEncoder.BLOCK_LENGTH +
+            PerformanceMetricsEncoder.testNameHeaderLength() + EncodingUtil.utf8Length(message.testName());
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE";
+    }
+}
@@ -0,0 +1,142 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded, open-addressed interning cache keyed on the raw encoded bytes.
+ *
+ * A lookup hashes the bytes in the buffer and compares them against the stored key, so a hit
+ * returns the canonical String without allocating. Each value may live in one of
+ * {@link #PROBE_LIMIT} slots from its home slot. When all of them are taken a victim is chosen
+ * with a second-chance (CLOCK) scan over that window. Values that were looked up again since
+ * they were stored survive one pass, while one-off values such as churning counterparties are
+ * evicted first. Slots are never emptied, only replaced, so lookups stop at the first empty slot.
+ *
+ * Not thread safe; use one cache per decoding thread.
+ */
+public class StringInternCache implements StringInterner {
+    static final int PROBE_LIMIT = 8;
+    
+    private final int mask;
+    private final int[] hashes;
+    private final byte[][] keys;
+    private final String[] values;
+    private final boolean[] referenced;
+    
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    
+    /**
+     * @param capacity the maximum number of values to hold, rounded up to a power of two
+     */
+    public StringInternCache(int capacity) {
+        int tableSize = BitUtil.findNextPositivePowerOfTwo(Math.max(capacity, PROBE_LIMIT));
+        this.mask = tableSize - 1;
+        this.hashes = new int[tableSize];
+        this.keys = new byte[tableSize][];
+        this.values = new String[tableSize];
+        this.referenced = new boolean[tableSize];
+    }
+    
+    @Override
+    public String intern(DirectBuffer buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        int home = hash & mask;
+        
+        for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+            int slot = (home + probe) & mask;
+            String value = values[slot];
+            
+            if (value == null) {
+                size++;
+                misses++;
+                return store(slot, hash, buffer, offset, length);
+            }
+            
+            if (hashes[slot] == hash && keyEquals(keys[slot], buffer, offset, length)) {
+                referenced[slot] = true;
+                hits++;
+                return value;
+            }
+        }
+        
+        misses++;
+        evictions++;
+        return store(victim(home), hash, buffer, offset, length);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return values.length;
+    }
+    
+    public long hits() {
+        return hits;
+    }
+    
+    public long misses() {
+        return misses;
+    }
+    
+    public long evictions() {
+        return evictions;
+    }
+    
+    private String store(int slot, int hash, DirectBuffer buffer, int offset, int length) {
+        byte[] key = new byte[length];
+        buffer.getBytes(offset, key, 0, length);
+        String value = new String(key, StandardCharsets.UTF_8);
+        
+        hashes[slot] = hash;
+        keys[slot] = key;
+        values[slot] = value;
+        referenced[slot] = false;
+        
+        return value;
+    }
+    
+    /**
+     * Second-chance scan of the probe window: clear reference bits until an unreferenced slot is found
+     */
+    private int victim(int home) {
+        for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+            int slot = (home + probe) & mask;
+            if (!referenced[slot]) {
+                return slot;
+            }
+            referenced[slot] = false;
+        }
+        return home;
+    }
+    
+    private static boolean keyEquals(byte[] key, DirectBuffer buffer, int offset, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer.getByte(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int hash(DirectBuffer buffer, int offset, int length) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.getByte(offset + i);
+        }
+        
+        // Spread the low bits so short, similar keys do not cluster in the table
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,24 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Turns encoded UTF-8 string bytes into a String, letting decoders reuse canonical instances
+ * for values that repeat, such as symbols and counterparties
+ */
+@FunctionalInterface
+public interface StringInterner {
+    /**
+     * Decodes every value into a new String, which is what the decoders did before interning
+     */
+    StringInterner NONE = (buffer, offset, length) -> buffer.getStringWithoutLengthUtf8(offset, length);
+    
+    /**
+     * Get the String for the encoded bytes
+     * @param buffer the buffer containing the string bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return a String equal to the UTF-8 decoding of the bytes
+     */
+    String intern(DirectBuffer buffer, int offset, int length);
+}
@@ -0,0 +1,162 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderEncoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeBatchMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeBatchMessageEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SBE serializer packing many trades into one message using the {@code trades} repeating group.
+ *
+ * Sending a burst as a few frames rather than one frame per trade saves the per-message header
+ * and {@code offer} cost. Use {@link #batchSize} to find how many trades fit into a frame,
+ * then {@link #serializeBatch} to encode them. On the receiving side, {@link #decodeBatch} hands
+ * each trade to a callback.
+ */
+public class TradeBatchSbeSerializer implements MessageSerializer<List<Trade>>, BatchSerializer<Trade> {
+    /**
+     * numInGroup is a uint16 and 65535 is its null value
+     */
+    public static final int MAX_BATCH_SIZE = 65534;
+    
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final TradeBatchMessageEncoder encoder = new TradeBatchMessageEncoder();
+    private final TradeBatchMessageDecoder decoder = new TradeBatchMessageDecoder();
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public TradeBatchSbeSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public TradeBatchSbeSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
+    
+    @Override
+    public int batchSize(List<Trade> trades, int fromIndex, int maxCount, int maxLength) {
+        int limit = Math.min(trades.size() - fromIndex, Math.min(maxCount, MAX_BATCH_SIZE));
+        int length = MessageHeaderEncoder.ENCODED_LENGTH +
+            TradeBatchMessageEncoder.BLOCK_LENGTH +
+            TradeBatchMessageEncoder.TradesEncoder.sbeHeaderSize();
+        
+        int count = 0;
+        while (count < limit) {
+            length += entryLength(trades.get(fromIndex + count));
+            if (length > maxLength) {
+                break;
+            }
+            count++;
+        }
+        
+        return count == 0 && limit > 0 ? 1 : count;
+    }
+    
+    @Override
+    public int serializeBatch(List<Trade> trades, int fromIndex, int count, MutableDirectBuffer buffer, int offset) {
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        
+        TradeBatchMessageEncoder.TradesEncoder entry = encoder.tradesCount(count);
+        for (int i = fromIndex, end = fromIndex + count; i < end; i++) {
+            Trade trade = trades.get(i);
+            entry.next()
+                .tradeId(trade.tradeId())
+                .timestamp(trade.timestamp())
+                .price(trade.price())
+                .quantity(trade.quantity())
+                .side((byte) trade.side());
+            entry.symbol(trade.symbol());
+            entry.counterparty(trade.counterparty());
+        }
+        
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+    
+    @Override
+    public int encodedLength(List<Trade> trades, int fromIndex, int count) {
+        int length = MessageHeaderEncoder.ENCODED_LENGTH +
+            TradeBatchMessageEncoder.BLOCK_LENGTH +
+            TradeBatchMessageEncoder.TradesEncoder.sbeHeaderSize();
+        for (int i = fromIndex, end = fromIndex + count; i < end; i++) {
+            length += entryLength(trades.get(i));
+        }
+        return length;
+    }
+    
+    /**
+     * Decode a batch, passing each trade to the consumer in order
+     * @return the number of trades decoded
+     */
+    public int decodeBatch(DirectBuffer buffer, int offset, int length, Consumer<Trade> consumer) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        
+        TradeBatchMessageDecoder.TradesDecoder entries = decoder.trades();
+        int count = entries.count();
+        while (entries.hasNext()) {
+            TradeBatchMessageDecoder.TradesDecoder entry = entries.next();
+            
+            long tradeId = entry.tradeId();
+            long timestamp = entry.timestamp();
+            double price = entry.price();
+            int quantity = entry.quantity();
+            char side = (char) entry.side();
+            
+            int symbolLength = entry.symbolLength();
+            String symbol = symbolInterner.intern(
+                buffer, decoder.limit() + TradeBatchMessageDecoder.TradesDecoder.symbolHeaderLength(), symbolLength);
+            entry.skipSymbol();
+            
+            int counterpartyLength = entry.counterpartyLength();
+            String counterparty = counterpartyInterner.intern(
+                buffer, decoder.limit() + TradeBatchMessageDecoder.TradesDecoder.counterpartyHeaderLength(),
+                counterpartyLength);
+            entry.skipCounterparty();
+            
+            consumer.accept(new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty));
+        }
+        
+        return count;
+    }
+    
+    @Override
+    public int serialize(List<Trade> message, MutableDirectBuffer buffer, int offset) {
+        return serializeBatch(message, 0, message.size(), buffer, offset);
+    }
+    
+    @Override
+    public List<Trade> deserialize(DirectBuffer buffer, int offset, int length) {
+        List<Trade> trades = new ArrayList<>();
+        decodeBatch(buffer, offset, length, trades::add);
+        return trades;
+    }
+    
+    @Override
+    public int encodedLength(List<Trade> message) {
+        return encodedLength(message, 0, message.size());
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "SBE-Batch";
+    }
+    
+    private static int entryLength(Trade trade) {
+        return TradeBatchMessageEncoder.TradesEncoder.sbeBlockLength() +
+            TradeBatchMessageEncoder.TradesEncoder.symbolHeaderLength() + EncodingUtil.utf8Length(trade.symbol()) +
+            TradeBatchMessageEncoder.TradesEncoder.counterpartyHeaderLength() +
+            EncodingUtil.utf8Length(trade.counterparty());
+    }
+}
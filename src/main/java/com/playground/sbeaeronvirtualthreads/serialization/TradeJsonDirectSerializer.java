@@ -0,0 +1,572 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Schema-specific JSON serializer for Trade messages.
+ *
+ * Writes ASCII straight into the buffer and parses with a single pass over the buffer, with no
+ * reflection, no intermediate byte[] and no Jackson token objects. The field names and layout match
+ * what {@link TradeJsonSerializer} produces, and either serializer can read the other's output.
+ * Non-ASCII characters are written as \\u escapes. Unescaped symbols and counterparties are
+ * resolved in place through a {@link StringInterner}. Not thread safe.
+ */
+public class TradeJsonDirectSerializer implements MessageSerializer<Trade> {
+    private static final byte[] TRADE_ID_FIELD = ascii("{\"tradeId\":");
+    private static final byte[] TIMESTAMP_FIELD = ascii(",\"timestamp\":");
+    private static final byte[] PRICE_FIELD = ascii(",\"price\":");
+    private static final byte[] QUANTITY_FIELD = ascii(",\"quantity\":");
+    private static final byte[] SIDE_FIELD = ascii(",\"side\":");
+    private static final byte[] SYMBOL_FIELD = ascii(",\"symbol\":");
+    private static final byte[] COUNTERPARTY_FIELD = ascii(",\"counterparty\":");
+    
+    private static final byte[] TRADE_ID = ascii("tradeId");
+    private static final byte[] TIMESTAMP = ascii("timestamp");
+    private static final byte[] PRICE = ascii("price");
+    private static final byte[] QUANTITY = ascii("quantity");
+    private static final byte[] SIDE = ascii("side");
+    private static final byte[] SYMBOL = ascii("symbol");
+    private static final byte[] COUNTERPARTY = ascii("counterparty");
+    
+    private static final byte[] HEX_DIGITS = ascii("0123456789abcdef");
+    
+    private static final int FRACTION_DIGITS = 8;
+    private static final double FRACTION_SCALE = 100_000_000.0;
+    private static final long FRACTION_DIVISOR = 100_000_000L;
+    private static final double MAX_FAST_DOUBLE = (1L << 53) / FRACTION_SCALE;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    // Index just past the last value parsed, so the parse methods can return the value itself
+    private int position;
+    
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public TradeJsonDirectSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public TradeJsonDirectSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
+    
+    @Override
+    public int serialize(Trade message, MutableDirectBuffer buffer, int offset) {
+        int index = offset;
+        
+        index += putBytes(buffer, index, TRADE_ID_FIELD);
+        index += buffer.putLongAscii(index, message.tradeId());
+        index += putBytes(buffer, index, TIMESTAMP_FIELD);
+        index += buffer.putLongAscii(index, message.timestamp());
+        index += putBytes(buffer, index, PRICE_FIELD);
+        index += putDouble(buffer, index, message.price());
+        index += putBytes(buffer, index, QUANTITY_FIELD);
+        index += buffer.putIntAscii(index, message.quantity());
+        index += putBytes(buffer, index, SIDE_FIELD);
+        buffer.putByte(index++, (byte) '"');
+        index += putChar(buffer, index, message.side());
+        buffer.putByte(index++, (byte) '"');
+        index += putBytes(buffer, index, SYMBOL_FIELD);
+        index += putString(buffer, index, message.symbol());
+        index += putBytes(buffer, index, COUNTERPARTY_FIELD);
+        index += putString(buffer, index, message.counterparty());
+        buffer.putByte(index++, (byte) '}');
+        
+        return index - offset;
+    }
+    
+    @Override
+    public Trade deserialize(DirectBuffer buffer, int offset, int length) {
+        int end = offset + length;
+        long tradeId = 0;
+        long timestamp = 0;
+        double price = 0;
+        int quantity = 0;
+        char side = 0;
+        String symbol = null;
+        String counterparty = null;
+        
+        int index = expect(buffer, skipWhitespace(buffer, offset, end), end, '{');
+        index = skipWhitespace(buffer, index, end);
+        
+        if (index < end && buffer.getByte(index) == '}') {
+            return new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
+        }
+        
+        while (true) {
+            index = expect(buffer, index, end, '"');
+            int keyOffset = index;
+            while (index < end && buffer.getByte(index) != '"') {
+                index += buffer.getByte(index) == '\\' ? 2 : 1;
+            }
+            int keyLength = index - keyOffset;
+            index = expect(buffer, index, end, '"');
+            index = skipWhitespace(buffer, expect(buffer, skipWhitespace(buffer, index, end), end, ':'), end);
+            
+            switch (keyLength) {
+                case 7 -> {
+                    if (keyEquals(buffer, keyOffset, TRADE_ID)) {
+                        tradeId = parseLong(buffer, index, end);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 9 -> {
+                    if (keyEquals(buffer, keyOffset, TIMESTAMP)) {
+                        timestamp = parseLong(buffer, index, end);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 5 -> {
+                    if (keyEquals(buffer, keyOffset, PRICE)) {
+                        price = parseDouble(buffer, index, end);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 8 -> {
+                    if (keyEquals(buffer, keyOffset, QUANTITY)) {
+                        quantity = (int) parseLong(buffer, index, end);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 4 -> {
+                    if (keyEquals(buffer, keyOffset, SIDE)) {
+                        side = parseChar(buffer, index, end);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 6 -> {
+                    if (keyEquals(buffer, keyOffset, SYMBOL)) {
+                        symbol = parseString(buffer, index, end, symbolInterner);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                case 12 -> {
+                    if (keyEquals(buffer, keyOffset, COUNTERPARTY)) {
+                        counterparty = parseString(buffer, index, end, counterpartyInterner);
+                    } else {
+                        position = skipValue(buffer, index, end);
+                    }
+                }
+                default -> position = skipValue(buffer, index, end);
+            }
+            
+            index = skipWhitespace(buffer, position, end);
+            if (index < end && buffer.getByte(index) == ',') {
+                index = skipWhitespace(buffer, index + 1, end);
+            } else {
+                expect(buffer, index, end, '}');
+                break;
+            }
+        }
+        
+        return new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "JSON-Direct";
+    }
+    
+    /**
+     * Write a double in plain decimal notation. Values that round trip with at most eight fraction
+     * digits, which covers prices, are formatted with integer arithmetic; anything else falls back
+     * to {@link Double#toString}.
+     */
+    private static int putDouble(MutableDirectBuffer buffer, int index, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // JSON has no literal for these; quote them as Jackson does
+            return putString(buffer, index, Double.toString(value));
+        }
+        
+        if (Math.abs(value) < MAX_FAST_DOUBLE) {
+            long scaled = Math.round(value * FRACTION_SCALE);
+            if (scaled / FRACTION_SCALE == value) {
+                int i = index;
+                if (Double.doubleToRawLongBits(value) < 0) {
+                    buffer.putByte(i++, (byte) '-');
+                    scaled = -scaled;
+                }
+                
+                i += buffer.putLongAscii(i, scaled / FRACTION_DIVISOR);
+                buffer.putByte(i++, (byte) '.');
+                
+                long fraction = scaled % FRACTION_DIVISOR;
+                if (fraction == 0) {
+                    buffer.putByte(i++, (byte) '0');
+                    return i - index;
+                }
+                
+                int digits = FRACTION_DIGITS;
+                while (fraction % 10 == 0) {
+                    fraction /= 10;
+                    digits--;
+                }
+                for (int d = digits - 1; d >= 0; d--) {
+                    buffer.putByte(i + d, (byte) ('0' + fraction % 10));
+                    fraction /= 10;
+                }
+                
+                return i + digits - index;
+            }
+        }
+        
+        return buffer.putStringWithoutLengthAscii(index, Double.toString(value));
+    }
+    
+    private static int putString(MutableDirectBuffer buffer, int index, String value) {
+        int i = index;
+        buffer.putByte(i++, (byte) '"');
+        for (int c = 0, length = value.length(); c < length; c++) {
+            i += putChar(buffer, i, value.charAt(c));
+        }
+        buffer.putByte(i++, (byte) '"');
+        return i - index;
+    }
+    
+    private static int putChar(MutableDirectBuffer buffer, int index, char c) {
+        if (c >= 0x20 && c < 0x7F && c != '"' && c != '\\') {
+            buffer.putByte(index, (byte) c);
+            return 1;
+        }
+        
+        buffer.putByte(index, (byte) '\\');
+        switch (c) {
+            case '"', '\\' -> {
+                buffer.putByte(index + 1, (byte) c);
+                return 2;
+            }
+            case '\n' -> {
+                buffer.putByte(index + 1, (byte) 'n');
+                return 2;
+            }
+            case '\r' -> {
+                buffer.putByte(index + 1, (byte) 'r');
+                return 2;
+            }
+            case '\t' -> {
+                buffer.putByte(index + 1, (byte) 't');
+                return 2;
+            }
+            default -> {
+                buffer.putByte(index + 1, (byte) 'u');
+                buffer.putByte(index + 2, HEX_DIGITS[(c >>> 12) & 0xF]);
+                buffer.putByte(index + 3, HEX_DIGITS[(c >>> 8) & 0xF]);
+                buffer.putByte(index + 4, HEX_DIGITS[(c >>> 4) & 0xF]);
+                buffer.putByte(index + 5, HEX_DIGITS[c & 0xF]);
+                return 6;
+            }
+        }
+    }
+    
+    private static int putBytes(MutableDirectBuffer buffer, int index, byte[] bytes) {
+        buffer.putBytes(index, bytes);
+        return bytes.length;
+    }
+    
+    private long parseLong(DirectBuffer buffer, int index, int end) {
+        int i = index;
+        boolean negative = i < end && buffer.getByte(i) == '-';
+        if (negative) {
+            i++;
+        }
+        
+        long value = 0;
+        int digitsStart = i;
+        while (i < end) {
+            int digit = buffer.getByte(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            value = value * 10 - digit;
+            i++;
+        }
+        
+        if (i == digitsStart) {
+            throw malformed(buffer, i, end);
+        }
+        
+        position = i;
+        return negative ? value : -value;
+    }
+    
+    /**
+     * Parse a JSON number. Plain decimals with up to 2^53 in the significand and up to 22 fraction
+     * digits are exact as significand / 10^fractionDigits, since both operands are exactly
+     * representable and the division rounds once. Anything else goes through {@link Double#parseDouble}.
+     */
+    private double parseDouble(DirectBuffer buffer, int index, int end) {
+        if (index < end && buffer.getByte(index) == '"') {
+            return Double.parseDouble(parseString(buffer, index, end));
+        }
+        
+        int i = index;
+        boolean negative = i < end && buffer.getByte(i) == '-';
+        if (negative) {
+            i++;
+        }
+        
+        long significand = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        boolean exact = true;
+        int digitsStart = i;
+        
+        while (i < end) {
+            byte b = buffer.getByte(i);
+            if (b >= '0' && b <= '9') {
+                if (significand < MAX_EXACT_MANTISSA / 10) {
+                    significand = significand * 10 + (b - '0');
+                    if (inFraction) {
+                        fractionDigits++;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else if (b == 'e' || b == 'E' || b == '+' || (b == '-' && i > digitsStart)) {
+                exact = false;
+            } else {
+                break;
+            }
+            i++;
+        }
+        
+        if (i == digitsStart) {
+            throw malformed(buffer, i, end);
+        }
+        
+        position = i;
+        if (!exact || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(buffer.getStringWithoutLengthAscii(index, i - index));
+        }
+        
+        double value = significand / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+    
+    private String parseString(DirectBuffer buffer, int index, int end) {
+        return parseString(buffer, index, end, StringInterner.NONE);
+    }
+    
+    /**
+     * Strings without escapes are exactly their UTF-8 bytes, so they go straight to the interner
+     */
+    private String parseString(DirectBuffer buffer, int index, int end, StringInterner interner) {
+        int i = expect(buffer, index, end, '"');
+        int start = i;
+        
+        while (i < end) {
+            byte b = buffer.getByte(i);
+            if (b == '"') {
+                position = i + 1;
+                return interner.intern(buffer, start, i - start);
+            } else if (b == '\\') {
+                return parseEscapedString(buffer, start, end);
+            }
+            i++;
+        }
+        
+        throw malformed(buffer, i, end);
+    }
+    
+    /**
+     * Parse a one character string in place, so reading a side does not build a String per message.
+     * An empty string reads as 0 and non-ASCII characters fall back to the general string parser.
+     */
+    private char parseChar(DirectBuffer buffer, int index, int end) {
+        int i = expect(buffer, index, end, '"');
+        if (i >= end) {
+            throw malformed(buffer, i, end);
+        }
+        
+        byte b = buffer.getByte(i);
+        char c;
+        if (b == '"') {
+            position = i + 1;
+            return 0;
+        } else if (b == '\\') {
+            if (i + 1 >= end) {
+                throw malformed(buffer, i, end);
+            }
+            byte escaped = buffer.getByte(i + 1);
+            i += 2;
+            switch (escaped) {
+                case 'n' -> c = '\n';
+                case 'r' -> c = '\r';
+                case 't' -> c = '\t';
+                case 'b' -> c = '\b';
+                case 'f' -> c = '\f';
+                case 'u' -> {
+                    c = parseHexChar(buffer, i, end);
+                    i += 4;
+                }
+                default -> c = (char) escaped;
+            }
+        } else if (b < 0) {
+            String value = parseString(buffer, index, end);
+            return value.charAt(0);
+        } else {
+            c = (char) b;
+            i++;
+        }
+        
+        position = expect(buffer, i, end, '"');
+        return c;
+    }
+    
+    private static char parseHexChar(DirectBuffer buffer, int index, int end) {
+        if (index + 4 > end) {
+            throw malformed(buffer, index, end);
+        }
+        int c = 0;
+        for (int k = 0; k < 4; k++) {
+            int digit = Character.digit(buffer.getByte(index + k), 16);
+            if (digit < 0) {
+                throw malformed(buffer, index + k, end);
+            }
+            c = (c << 4) | digit;
+        }
+        return (char) c;
+    }
+    
+    /**
+     * Slow path for strings containing escapes. Runs of raw bytes are decoded as UTF-8.
+     */
+    private String parseEscapedString(DirectBuffer buffer, int start, int end) {
+        StringBuilder builder = new StringBuilder();
+        int runStart = start;
+        int i = start;
+        
+        while (i < end) {
+            byte b = buffer.getByte(i);
+            if (b == '"') {
+                builder.append(buffer.getStringWithoutLengthUtf8(runStart, i - runStart));
+                position = i + 1;
+                return builder.toString();
+            }
+            
+            if (b != '\\') {
+                i++;
+                continue;
+            }
+            
+            builder.append(buffer.getStringWithoutLengthUtf8(runStart, i - runStart));
+            if (i + 1 >= end) {
+                throw malformed(buffer, i, end);
+            }
+            
+            byte escaped = buffer.getByte(i + 1);
+            i += 2;
+            switch (escaped) {
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'u' -> {
+                    builder.append(parseHexChar(buffer, i, end));
+                    i += 4;
+                }
+                default -> builder.append((char) escaped);
+            }
+            runStart = i;
+        }
+        
+        throw malformed(buffer, i, end);
+    }
+    
+    /**
+     * Skip over a value of a field this schema does not know about, including nested objects and arrays
+     */
+    private int skipValue(DirectBuffer buffer, int index, int end) {
+        int i = index;
+        int depth = 0;
+        
+        while (i < end) {
+            byte b = buffer.getByte(i);
+            if (b == '"') {
+                parseString(buffer, i, end);
+                i = position;
+                if (depth == 0) {
+                    return i;
+                }
+                continue;
+            }
+            
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            } else if (b == ',' && depth == 0) {
+                return i;
+            }
+            i++;
+        }
+        
+        return i;
+    }
+    
+    private static boolean keyEquals(DirectBuffer buffer, int index, byte[] key) {
+        for (int k = 0; k < key.length; k++) {
+            if (buffer.getByte(index + k) != key[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int skipWhitespace(DirectBuffer buffer, int index, int end) {
+        int i = index;
+        while (i < end) {
+            byte b = buffer.getByte(i);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+    
+    private static int expect(DirectBuffer buffer, int index, int end, char expected) {
+        if (index >= end || buffer.getByte(index) != expected) {
+            throw malformed(buffer, index, end);
+        }
+        return index + 1;
+    }
+    
+    private static IllegalArgumentException malformed(DirectBuffer buffer, int index, int end) {
+        String found = index < end ? "'" + (char) buffer.getByte(index) + "'" : "end of message";
+        return new IllegalArgumentException(
+            "Failed to deserialize trade from JSON: unexpected " + found + " at index " + index);
+    }
+    
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
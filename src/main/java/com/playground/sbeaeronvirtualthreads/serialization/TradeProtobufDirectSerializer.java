@@ -0,0 +1,252 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.proto.TradeMessage;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protobuf serializer for Trade messages that skips the generated builder and the byte[] staging.
+ *
+ * Fields are written by hand with a {@link CodedOutputStream} over the buffer's backing array or
+ * {@link ByteBuffer} and read back with a {@link CodedInputStream} over the same memory. The wire
+ * format is byte-for-byte what {@link TradeProtobufSerializer} produces, so consumers using the
+ * generated {@link TradeMessage} can read it unchanged. Symbol and counterparty are resolved in
+ * place through a {@link StringInterner}.
+ */
+public class TradeProtobufDirectSerializer implements MessageSerializer<Trade> {
+    private static final int TRADE_ID_TAG =
+        TradeMessage.TRADE_ID_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+    private static final int TIMESTAMP_TAG =
+        TradeMessage.TIMESTAMP_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+    private static final int PRICE_TAG =
+        TradeMessage.PRICE_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_FIXED64;
+    private static final int QUANTITY_TAG =
+        TradeMessage.QUANTITY_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+    private static final int SIDE_TAG =
+        TradeMessage.SIDE_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int SYMBOL_TAG =
+        TradeMessage.SYMBOL_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int COUNTERPARTY_TAG =
+        TradeMessage.COUNTERPARTY_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    
+    // Used for buffers wrapping raw memory addresses, which have nothing for protobuf to write into,
+    // and for messages that do not fit in the memory left behind the buffer
+    private byte[] scratch = new byte[0];
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public TradeProtobufDirectSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public TradeProtobufDirectSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
+    
+    @Override
+    public int serialize(Trade message, MutableDirectBuffer buffer, int offset) {
+        try {
+            if (buffer.byteArray() != null || buffer.byteBuffer() != null) {
+                try {
+                    CodedOutputStream output = newOutput(buffer, offset, buffer.capacity() - offset);
+                    writeTrade(message, output);
+                    output.flush();
+                    return output.getTotalBytesWritten();
+                } catch (CodedOutputStream.OutOfSpaceException e) {
+                    // Not enough memory left behind the buffer; putBytes below lets an expandable buffer grow
+                }
+            }
+            
+            int length = encodedLength(message);
+            CodedOutputStream output = CodedOutputStream.newInstance(scratch(length), 0, length);
+            writeTrade(message, output);
+            buffer.putBytes(offset, scratch, 0, length);
+            return length;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize trade to Protobuf", e);
+        }
+    }
+    
+    @Override
+    public Trade deserialize(DirectBuffer buffer, int offset, int length) {
+        try {
+            CodedInputStream input;
+            if (buffer.byteArray() == null && buffer.byteBuffer() == null) {
+                buffer.getBytes(offset, scratch(length), 0, length);
+                input = CodedInputStream.newInstance(scratch, 0, length);
+            } else {
+                input = newInput(buffer, offset, length);
+            }
+            
+            long tradeId = 0;
+            long timestamp = 0;
+            double price = 0;
+            int quantity = 0;
+            char side = 0;
+            String symbol = "";
+            String counterparty = "";
+            
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                switch (tag) {
+                    case TRADE_ID_TAG -> tradeId = input.readInt64();
+                    case TIMESTAMP_TAG -> timestamp = input.readInt64();
+                    case PRICE_TAG -> price = input.readDouble();
+                    case QUANTITY_TAG -> quantity = input.readInt32();
+                    case SIDE_TAG -> side = readChar(input);
+                    case SYMBOL_TAG -> symbol = readString(input, buffer, offset, symbolInterner);
+                    case COUNTERPARTY_TAG -> counterparty = readString(input, buffer, offset, counterpartyInterner);
+                    default -> input.skipField(tag);
+                }
+            }
+            
+            return new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize trade from Protobuf", e);
+        }
+    }
+    
+    @Override
+    public int encodedLength(Trade message) {
+        int size = 0;
+        
+        if (message.tradeId() != 0) {
+            size += CodedOutputStream.computeInt64Size(TradeMessage.TRADE_ID_FIELD_NUMBER, message.tradeId());
+        }
+        if (message.timestamp() != 0) {
+            size += CodedOutputStream.computeInt64Size(TradeMessage.TIMESTAMP_FIELD_NUMBER, message.timestamp());
+        }
+        if (Double.doubleToRawLongBits(message.price()) != 0) {
+            size += CodedOutputStream.computeDoubleSize(TradeMessage.PRICE_FIELD_NUMBER, message.price());
+        }
+        if (message.quantity() != 0) {
+            size += CodedOutputStream.computeInt32Size(TradeMessage.QUANTITY_FIELD_NUMBER, message.quantity());
+        }
+        
+        int sideLength = utf8Length(message.side());
+        size += CodedOutputStream.computeTagSize(TradeMessage.SIDE_FIELD_NUMBER) +
+            CodedOutputStream.computeUInt32SizeNoTag(sideLength) + sideLength;
+        
+        if (!message.symbol().isEmpty()) {
+            size += CodedOutputStream.computeStringSize(TradeMessage.SYMBOL_FIELD_NUMBER, message.symbol());
+        }
+        if (!message.counterparty().isEmpty()) {
+            size += CodedOutputStream.computeStringSize(TradeMessage.COUNTERPARTY_FIELD_NUMBER, message.counterparty());
+        }
+        
+        return size;
+    }
+    
+    @Override
+    public String getFormatName() {
+        return "Protobuf-Direct";
+    }
+    
+    /**
+     * Write the fields in field-number order, omitting proto3 defaults as the generated code does
+     */
+    private static void writeTrade(Trade message, CodedOutputStream output) throws IOException {
+        if (message.tradeId() != 0) {
+            output.writeInt64(TradeMessage.TRADE_ID_FIELD_NUMBER, message.tradeId());
+        }
+        if (message.timestamp() != 0) {
+            output.writeInt64(TradeMessage.TIMESTAMP_FIELD_NUMBER, message.timestamp());
+        }
+        if (Double.doubleToRawLongBits(message.price()) != 0) {
+            output.writeDouble(TradeMessage.PRICE_FIELD_NUMBER, message.price());
+        }
+        if (message.quantity() != 0) {
+            output.writeInt32(TradeMessage.QUANTITY_FIELD_NUMBER, message.quantity());
+        }
+        
+        writeChar(output, message.side());
+        
+        if (!message.symbol().isEmpty()) {
+            output.writeString(TradeMessage.SYMBOL_FIELD_NUMBER, message.symbol());
+        }
+        if (!message.counterparty().isEmpty()) {
+            output.writeString(TradeMessage.COUNTERPARTY_FIELD_NUMBER, message.counterparty());
+        }
+    }
+    
+    /**
+     * Side is a one character string on the wire; write it without going through String.valueOf
+     */
+    private static void writeChar(CodedOutputStream output, char value) throws IOException {
+        output.writeTag(TradeMessage.SIDE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(utf8Length(value));
+        
+        if (value < 0x80) {
+            output.writeRawByte((byte) value);
+        } else if (value < 0x800) {
+            output.writeRawByte((byte) (0xC0 | (value >>> 6)));
+            output.writeRawByte((byte) (0x80 | (value & 0x3F)));
+        } else {
+            output.writeRawByte((byte) (0xE0 | (value >>> 12)));
+            output.writeRawByte((byte) (0x80 | ((value >>> 6) & 0x3F)));
+            output.writeRawByte((byte) (0x80 | (value & 0x3F)));
+        }
+    }
+    
+    private static char readChar(CodedInputStream input) throws IOException {
+        int length = input.readRawVarint32();
+        if (length == 1) {
+            return (char) input.readRawByte();
+        }
+        
+        return new String(input.readRawBytes(length), StandardCharsets.UTF_8).charAt(0);
+    }
+    
+    /**
+     * Hand the string bytes to the interner where they sit in the source buffer, then step over them
+     */
+    private static String readString(
+        CodedInputStream input, DirectBuffer buffer, int offset, StringInterner interner) throws IOException {
+        int length = input.readRawVarint32();
+        String value = interner.intern(buffer, offset + input.getTotalBytesRead(), length);
+        input.skipRawBytes(length);
+        return value;
+    }
+    
+    private static int utf8Length(char value) {
+        return value < 0x80 ? 1 : value < 0x800 ? 2 : 3;
+    }
+    
+    private static CodedOutputStream newOutput(MutableDirectBuffer buffer, int offset, int length) {
+        int index = buffer.wrapAdjustment() + offset;
+        byte[] array = buffer.byteArray();
+        
+        return array != null ?
+            CodedOutputStream.newInstance(array, index, length) :
+            CodedOutputStream.newInstance(buffer.byteBuffer().slice(index, length));
+    }
+    
+    private static CodedInputStream newInput(DirectBuffer buffer, int offset, int length) {
+        int index = buffer.wrapAdjustment() + offset;
+        byte[] array = buffer.byteArray();
+        
+        return array != null ?
+            CodedInputStream.newInstance(array, index, length) :
+            CodedInputStream.newInstance(buffer.byteBuffer().slice(index, length));
+    }
+    
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[length];
+        }
+        return scratch;
+    }
+}
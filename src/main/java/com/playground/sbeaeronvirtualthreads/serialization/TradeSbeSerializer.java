@@ -9,13 +9,31 @@ import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 
 /**
- * SBE serializer for Trade messages
+ * SBE serializer for Trade messages.
+ *
+ * Symbol and counterparty strings are produced by a {@link StringInterner}, so decoding can
+ * return canonical instances instead of a new String per message.
  */
 public class TradeSbeSerializer implements MessageSerializer<Trade> {
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final TradeMessageEncoder encoder = new TradeMessageEncoder();
     private final TradeMessageDecoder decoder = new TradeMessageDecoder();
+    private final StringInterner symbolInterner;
+    private final StringInterner counterpartyInterner;
+    
+    public TradeSbeSerializer() {
+        this(StringInterner.NONE, StringInterner.NONE);
+    }
+    
+    /**
+     * @param symbolInterner resolves decoded symbols
+     * @param counterpartyInterner resolves decoded counterparties
+     */
+    public TradeSbeSerializer(StringInterner symbolInterner, StringInterner counterpartyInterner) {
+        this.symbolInterner = symbolInterner;
+        this.counterpartyInterner = counterpartyInterner;
+    }
     
     @Override
     public int serialize(Trade message, MutableDirectBuffer buffer, int offset) {
@@ -43,12 +61,28 @@ public class TradeSbeSerializer implements MessageSerializer<Trade> {
         double price = decoder.price();
         int quantity = decoder.quantity();
         char side = (char) decoder.side();
-        String symbol = decoder.symbol();
-        String counterparty = decoder.counterparty();
+        
+        int symbolLength = decoder.symbolLength();
+        String symbol = symbolInterner.intern(
+            buffer, decoder.limit() + TradeMessageDecoder.symbolHeaderLength(), symbolLength);
+        decoder.skipSymbol();
+        
+        int counterpartyLength = decoder.counterpartyLength();
+        String counterparty = counterpartyInterner.intern(
+            buffer, decoder.limit() + TradeMessageDecoder.counterpartyHeaderLength(), counterpartyLength);
+        decoder.skipCounterparty();
         
         return new Trade(tradeId, timestamp, price, quantity, side, symbol, counterparty);
     }
     
+    @Override
+    public int encodedLength(Trade message) {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+            TradeMessageEncoder.BLOCK_LENGTH +
+            TradeMessageEncoder.symbolHeaderLength() + EncodingUtil.utf8Length(message.symbol()) +
+            TradeMessageEncoder.counterpartyHeaderLength() + EncodingUtil.utf8Length(message.counterparty());
+    }
+    
     @Override
     public String getFormatName() {
         return "SBE";
@@ -0,0 +1,142 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import org.agrona.AsciiSequenceView;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Flyweight view over an SBE encoded trade for allocation-free decoding.
+ *
+ * Wrap the view over a received buffer and read fields in place instead of materialising a
+ * {@link Trade}. The view, including the {@link CharSequence}s it hands out, is only valid until
+ * the next call to {@link #wrap} or until the underlying buffer is reused. Not thread safe.
+ */
+public class TradeView {
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final TradeMessageDecoder decoder = new TradeMessageDecoder();
+    private final AsciiSequenceView symbolView = new AsciiSequenceView();
+    private final AsciiSequenceView counterpartyView = new AsciiSequenceView();
+    
+    private DirectBuffer buffer;
+    private int symbolOffset;
+    private int symbolLength;
+    private int counterpartyOffset;
+    private int counterpartyLength;
+    
+    /**
+     * Wrap an encoded trade, locating the var-data fields once so they can be read in any order
+     * @param buffer the buffer containing the message
+     * @param offset the offset of the message header in the buffer
+     * @param length the length of the message
+     * @return this view for fluent use
+     */
+    public TradeView wrap(DirectBuffer buffer, int offset, int length) {
+        decoder.wrapAndApplyHeader(buffer, offset, headerDecoder);
+        this.buffer = buffer;
+        
+        symbolLength = decoder.symbolLength();
+        symbolOffset = decoder.limit() + TradeMessageDecoder.symbolHeaderLength();
+        decoder.skipSymbol();
+        
+        counterpartyLength = decoder.counterpartyLength();
+        counterpartyOffset = decoder.limit() + TradeMessageDecoder.counterpartyHeaderLength();
+        decoder.skipCounterparty();
+        
+        symbolView.wrap(buffer, symbolOffset, symbolLength);
+        counterpartyView.wrap(buffer, counterpartyOffset, counterpartyLength);
+        
+        return this;
+    }
+    
+    public long tradeId() {
+        return decoder.tradeId();
+    }
+    
+    public long timestamp() {
+        return decoder.timestamp();
+    }
+    
+    public double price() {
+        return decoder.price();
+    }
+    
+    public int quantity() {
+        return decoder.quantity();
+    }
+    
+    public char side() {
+        return (char) decoder.side();
+    }
+    
+    /**
+     * Symbol as a view over the encoded bytes. Assumes ASCII content, which holds for our symbols.
+     */
+    public CharSequence symbol() {
+        return symbolView;
+    }
+    
+    public int symbolLength() {
+        return symbolLength;
+    }
+    
+    /**
+     * Point the given buffer at the encoded symbol bytes
+     */
+    public void wrapSymbol(DirectBuffer wrapBuffer) {
+        wrapBuffer.wrap(buffer, symbolOffset, symbolLength);
+    }
+    
+    /**
+     * Copy the encoded symbol bytes into the destination buffer
+     * @return the number of bytes copied
+     */
+    public int getSymbol(MutableDirectBuffer dst, int dstOffset) {
+        dst.putBytes(dstOffset, buffer, symbolOffset, symbolLength);
+        return symbolLength;
+    }
+    
+    /**
+     * Counterparty as a view over the encoded bytes. Assumes ASCII content.
+     */
+    public CharSequence counterparty() {
+        return counterpartyView;
+    }
+    
+    public int counterpartyLength() {
+        return counterpartyLength;
+    }
+    
+    /**
+     * Point the given buffer at the encoded counterparty bytes
+     */
+    public void wrapCounterparty(DirectBuffer wrapBuffer) {
+        wrapBuffer.wrap(buffer, counterpartyOffset, counterpartyLength);
+    }
+    
+    /**
+     * Copy the encoded counterparty bytes into the destination buffer
+     * @return the number of bytes copied
+     */
+    public int getCounterparty(MutableDirectBuffer dst, int dstOffset) {
+        dst.putBytes(dstOffset, buffer, counterpartyOffset, counterpartyLength);
+        return counterpartyLength;
+    }
+    
+    /**
+     * Materialise the view as a {@link Trade}, decoding the var-data fields as UTF-8. Allocates.
+     */
+    public Trade toTrade() {
+        return new Trade(
+            tradeId(),
+            timestamp(),
+            price(),
+            quantity(),
+            side(),
+            buffer.getStringWithoutLengthUtf8(symbolOffset, symbolLength),
+            buffer.getStringWithoutLengthUtf8(counterpartyOffset, counterpartyLength)
+        );
+    }
+}
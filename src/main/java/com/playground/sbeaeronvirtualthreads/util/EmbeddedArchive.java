@@ -0,0 +1,96 @@
+package com.playground.sbeaeronvirtualthreads.util;
+
+import io.aeron.Aeron;
+import io.aeron.archive.Archive;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.codecs.SourceLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * Embedded Aeron Archive recording streams from the embedded media driver.
+ *
+ * The archive runs in-process against the driver in the default Aeron directory, so start the
+ * driver first. Its control channel is IPC only, nothing listens on the network. The archive
+ * directory is wiped on start and deleted on close. Not thread safe, as the {@link AeronArchive}
+ * client is not.
+ */
+public class EmbeddedArchive implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedArchive.class);
+    
+    public static final String CONTROL_CHANNEL = "aeron:ipc";
+    public static final int CONTROL_STREAM_ID = 10;
+    private static final String REPLICATION_CHANNEL = "aeron:udp?endpoint=localhost:0";
+    
+    private final Archive archive;
+    private final AeronArchive aeronArchive;
+    
+    public EmbeddedArchive() {
+        this(new File(System.getProperty("java.io.tmpdir"), "sbe-aeron-archive-" + ProcessHandle.current().pid()));
+    }
+    
+    public EmbeddedArchive(File archiveDir) {
+        Archive.Context archiveContext = new Archive.Context()
+            .archiveDir(archiveDir)
+            .deleteArchiveOnStart(true)
+            .controlChannelEnabled(false)
+            .localControlChannel(CONTROL_CHANNEL)
+            .localControlStreamId(CONTROL_STREAM_ID)
+            .replicationChannel(REPLICATION_CHANNEL)
+            .recordingEventsEnabled(false);
+        
+        this.archive = Archive.launch(archiveContext);
+        this.aeronArchive = AeronArchive.connect(new AeronArchive.Context()
+            .controlRequestChannel(CONTROL_CHANNEL)
+            .controlRequestStreamId(CONTROL_STREAM_ID)
+            .controlResponseChannel(CONTROL_CHANNEL));
+        
+        log.info("Embedded Archive started in {}", archiveDir);
+    }
+    
+    /**
+     * Start recording a stream published on this host
+     * @return the subscription id, to pass to {@link #stopRecording(long)}
+     */
+    public long startRecording(String channel, int streamId) {
+        long subscriptionId = aeronArchive.startRecording(channel, streamId, SourceLocation.LOCAL);
+        log.info("Recording channel: {} streamId: {}", channel, streamId);
+        return subscriptionId;
+    }
+    
+    public void stopRecording(long subscriptionId) {
+        aeronArchive.stopRecording(subscriptionId);
+    }
+    
+    /**
+     * Find the most recent recording of a stream. A recording only exists once a publication on
+     * the stream has connected to the archive.
+     * @return the recording id, or {@link Aeron#NULL_VALUE} if there is none yet
+     */
+    public long findLatestRecordingId(String channel, int streamId) {
+        long[] latestRecordingId = {Aeron.NULL_VALUE};
+        aeronArchive.listRecordingsForUri(0, Integer.MAX_VALUE, channel, streamId,
+            (controlSessionId, correlationId, recordingId, startTimestamp, stopTimestamp, startPosition,
+             stopPosition, initialTermId, segmentFileLength, termBufferLength, mtuLength, sessionId,
+             recordedStreamId, strippedChannel, originalChannel, sourceIdentity) ->
+                latestRecordingId[0] = Math.max(latestRecordingId[0], recordingId));
+        return latestRecordingId[0];
+    }
+    
+    /**
+     * The archive client, for replays and recording queries
+     */
+    public AeronArchive client() {
+        return aeronArchive;
+    }
+    
+    @Override
+    public void close() {
+        aeronArchive.close();
+        archive.close();
+        archive.context().deleteDirectory();
+        log.info("Embedded Archive stopped");
+    }
+}
@@ -1,28 +1,146 @@
 package com.playground.sbeaeronvirtualthreads.util;
 
+import io.aeron.Aeron;
+import io.aeron.CommonContext;
 import io.aeron.driver.MediaDriver;
 import io.aeron.driver.ThreadingMode;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentInvoker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Manages embedded Aeron Media Driver for the application
+ * Manages embedded Aeron Media Driver for the application.
+ *
+ * In invoker mode ({@link #withAgentInvoker()}) the driver starts no threads of its own. Clients
+ * from {@link #connectClient()} run their conductors on invokers as well, and the application
+ * drives both by calling {@link #invoke()} from its own duty cycle, or by adding {@link #asAgent()}
+ * to one. Invokers are not thread safe: create publications and subscriptions before handing the
+ * duty cycle to another thread, as their registration also invokes the driver.
  */
 public class EmbeddedMediaDriver {
     private static final Logger log = LoggerFactory.getLogger(EmbeddedMediaDriver.class);
     private final MediaDriver mediaDriver;
+    private final AgentInvoker driverInvoker;
+    private final List<AgentInvoker> clientInvokers = new ArrayList<>();
     
     public EmbeddedMediaDriver() {
-        MediaDriver.Context context = new MediaDriver.Context()
-            .threadingMode(ThreadingMode.SHARED)
-            .dirDeleteOnStart(true)
-            .dirDeleteOnShutdown(true);
-        
+        this(MediaDriverProfile.DEFAULT);
+    }
+    
+    /**
+     * @param profile the threading, idle and term buffer settings to launch the driver with
+     */
+    public EmbeddedMediaDriver(MediaDriverProfile profile) {
+        this(profile.newContext(), profile.name());
+    }
+    
+    private EmbeddedMediaDriver(MediaDriver.Context context, String description) {
         this.mediaDriver = MediaDriver.launch(context);
-        log.info("Embedded Media Driver started");
+        this.driverInvoker = mediaDriver.sharedAgentInvoker();
+        log.info("Embedded Media Driver started with {} profile in {}", description, context.aeronDirectoryName());
+    }
+    
+    /**
+     * Launch a driver with no threads of its own, driven by {@link #invoke()}. It uses a directory of
+     * its own so it can run alongside a threaded driver in the same process.
+     */
+    public static EmbeddedMediaDriver withAgentInvoker() {
+        MediaDriver.Context context = MediaDriverProfile.DEFAULT.newContext()
+            .threadingMode(ThreadingMode.INVOKER)
+            .aeronDirectoryName(CommonContext.generateRandomDirName());
+        
+        return new EmbeddedMediaDriver(context, ThreadingMode.INVOKER.name());
+    }
+    
+    /**
+     * Connect a client to this driver. In invoker mode the client's conductor is invoked by
+     * {@link #invoke()} rather than running on its own thread. The caller closes the client.
+     */
+    public Aeron connectClient() {
+        Aeron.Context context = new Aeron.Context()
+            .aeronDirectoryName(aeronDirectoryName());
+        
+        if (!isInvokerMode()) {
+            return Aeron.connect(context);
+        }
+        
+        // Lets the client run the driver while it waits for registration responses
+        context.useConductorAgentInvoker(true).driverAgentInvoker(driverInvoker);
+        Aeron aeron = Aeron.connect(context);
+        synchronized (clientInvokers) {
+            clientInvokers.add(aeron.conductorAgentInvoker());
+        }
+        return aeron;
+    }
+    
+    /**
+     * The directory the driver runs in, for clients connecting with their own {@link Aeron.Context}
+     */
+    public String aeronDirectoryName() {
+        return mediaDriver.aeronDirectoryName();
+    }
+    
+    public boolean isInvokerMode() {
+        return driverInvoker != null;
+    }
+    
+    /**
+     * The invoker running the driver's agents, or null if the driver has its own threads
+     */
+    public AgentInvoker agentInvoker() {
+        return driverInvoker;
+    }
+    
+    /**
+     * Do one duty cycle of driver and client conductor work. Does nothing unless in invoker mode.
+     * @return the amount of work done, for the caller's idle strategy
+     */
+    public int invoke() {
+        if (driverInvoker == null) {
+            return 0;
+        }
+        
+        int workCount = driverInvoker.invoke();
+        synchronized (clientInvokers) {
+            for (int i = clientInvokers.size() - 1; i >= 0; i--) {
+                AgentInvoker clientInvoker = clientInvokers.get(i);
+                if (clientInvoker.isClosed()) {
+                    // Clients closed by the caller are dropped so connect/close cycles do not grow the list
+                    clientInvokers.remove(i);
+                } else {
+                    workCount += clientInvoker.invoke();
+                }
+            }
+        }
+        return workCount;
+    }
+    
+    /**
+     * Wrap {@link #invoke()} as an agent, e.g. to combine with {@code AeronSubscriber.asAgent} in a
+     * {@link org.agrona.concurrent.CompositeAgent} so one thread polls and drives the driver
+     */
+    public Agent asAgent() {
+        return new Agent() {
+            @Override
+            public int doWork() {
+                return invoke();
+            }
+            
+            @Override
+            public String roleName() {
+                return "embedded-media-driver-invoker";
+            }
+        };
     }
     
     public void close() {
+        synchronized (clientInvokers) {
+            clientInvokers.clear();
+        }
         if (mediaDriver != null) {
             mediaDriver.close();
             log.info("Embedded Media Driver stopped");
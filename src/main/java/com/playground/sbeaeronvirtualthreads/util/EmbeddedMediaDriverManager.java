@@ -1,7 +1,6 @@
 package com.playground.sbeaeronvirtualthreads.util;
 
 import io.aeron.driver.MediaDriver;
-import io.aeron.driver.ThreadingMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,20 +10,30 @@ import org.slf4j.LoggerFactory;
 public class EmbeddedMediaDriverManager {
     private static final Logger log = LoggerFactory.getLogger(EmbeddedMediaDriverManager.class);
     private static MediaDriver mediaDriver;
+    private static MediaDriverProfile runningProfile;
     private static int referenceCount = 0;
     
     /**
      * Start the embedded media driver if not already running
      */
     public static synchronized void start() {
+        start(MediaDriverProfile.DEFAULT);
+    }
+    
+    /**
+     * Start the embedded media driver with the given profile if not already running
+     * @throws IllegalStateException if the driver is already running with a different profile
+     */
+    public static synchronized void start(MediaDriverProfile profile) {
+        if (referenceCount > 0 && runningProfile != profile) {
+            throw new IllegalStateException(
+                "Media Driver already running with " + runningProfile + " profile, cannot share as " + profile);
+        }
+        
         if (referenceCount == 0) {
-            MediaDriver.Context context = new MediaDriver.Context()
-                .threadingMode(ThreadingMode.SHARED)
-                .dirDeleteOnStart(true)
-                .dirDeleteOnShutdown(true);
-            
-            mediaDriver = MediaDriver.launch(context);
-            log.info("Embedded Media Driver started");
+            mediaDriver = MediaDriver.launch(profile.newContext());
+            runningProfile = profile;
+            log.info("Embedded Media Driver started with {} profile", profile);
             
             // Give the driver a moment to initialize
             try {
@@ -45,6 +54,7 @@ public class EmbeddedMediaDriverManager {
         if (referenceCount == 0 && mediaDriver != null) {
             mediaDriver.close();
             mediaDriver = null;
+            runningProfile = null;
             log.info("Embedded Media Driver stopped");
         }
     }
@@ -56,11 +66,27 @@ public class EmbeddedMediaDriverManager {
         if (mediaDriver != null) {
             mediaDriver.close();
             mediaDriver = null;
+            runningProfile = null;
             referenceCount = 0;
             log.info("Embedded Media Driver force stopped");
         }
     }
     
+    /**
+     * The profile of the running media driver, or null if it is not running
+     */
+    public static synchronized MediaDriverProfile runningProfile() {
+        return runningProfile;
+    }
+    
+    /**
+     * The directory of the running media driver, for clients connecting with their own
+     * {@code Aeron.Context}, or null if it is not running
+     */
+    public static synchronized String aeronDirectoryName() {
+        return mediaDriver != null ? mediaDriver.aeronDirectoryName() : null;
+    }
+    
     /**
      * Check if the media driver is running
      */
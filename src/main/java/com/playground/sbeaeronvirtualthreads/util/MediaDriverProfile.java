@@ -0,0 +1,152 @@
+package com.playground.sbeaeronvirtualthreads.util;
+
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import io.aeron.CommonContext;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+
+import java.io.File;
+
+/**
+ * Named media driver configurations trading latency against CPU and memory footprint.
+ *
+ * The conductor idle strategy is used for the conductor thread, or for the single driver thread
+ * when the threading mode is SHARED. The sender and receiver idle strategies are used for their
+ * own threads when DEDICATED, and the sender's for the combined network thread when SHARED_NETWORK.
+ * A null idle strategy leaves Aeron's configured default, from the {@code aeron.*.idle.strategy}
+ * properties, in place.
+ */
+public enum MediaDriverProfile {
+    /**
+     * The original embedded driver: one shared thread with Aeron's configured idle strategies
+     */
+    DEFAULT(ThreadingMode.SHARED,
+        null, null, null,
+        false, false, false),
+    
+    /**
+     * A busy-spinning thread each for conductor, sender and receiver, with term buffers fully
+     * allocated and pre-touched on a /dev/shm directory unless {@code aeron.dir} is set. Costs
+     * three cores while running.
+     */
+    LOW_LATENCY(ThreadingMode.DEDICATED,
+        IdleStrategyType.BUSY_SPIN, IdleStrategyType.BUSY_SPIN, IdleStrategyType.BUSY_SPIN,
+        false, true, true),
+    
+    /**
+     * Conductor plus one thread for sender and receiver, both backing off when idle
+     */
+    BALANCED(ThreadingMode.SHARED_NETWORK,
+        IdleStrategyType.BACKOFF, IdleStrategyType.BACKOFF, IdleStrategyType.BACKOFF,
+        false, false, false),
+    
+    /**
+     * One sleeping thread for the whole driver, with sparse term buffers that only take memory
+     * as they are written
+     */
+    LOW_FOOTPRINT(ThreadingMode.SHARED,
+        IdleStrategyType.SLEEPING, IdleStrategyType.SLEEPING, IdleStrategyType.SLEEPING,
+        true, false, false);
+    
+    private static final String DEV_SHM = "/dev/shm";
+    
+    private final ThreadingMode threadingMode;
+    private final IdleStrategyType conductorIdleStrategy;
+    private final IdleStrategyType senderIdleStrategy;
+    private final IdleStrategyType receiverIdleStrategy;
+    private final boolean termBufferSparseFile;
+    private final boolean preTouchMappedMemory;
+    private final boolean devShmDirectory;
+    
+    MediaDriverProfile(
+        ThreadingMode threadingMode,
+        IdleStrategyType conductorIdleStrategy,
+        IdleStrategyType senderIdleStrategy,
+        IdleStrategyType receiverIdleStrategy,
+        boolean termBufferSparseFile,
+        boolean preTouchMappedMemory,
+        boolean devShmDirectory) {
+        this.threadingMode = threadingMode;
+        this.conductorIdleStrategy = conductorIdleStrategy;
+        this.senderIdleStrategy = senderIdleStrategy;
+        this.receiverIdleStrategy = receiverIdleStrategy;
+        this.termBufferSparseFile = termBufferSparseFile;
+        this.preTouchMappedMemory = preTouchMappedMemory;
+        this.devShmDirectory = devShmDirectory;
+    }
+    
+    /**
+     * Create a driver context with this profile's settings, deleting the driver directory on start
+     * and shutdown like the embedded drivers always have. A directory moved to /dev/shm is only set
+     * on the context, so clients must connect with the driver's {@code aeronDirectoryName()}.
+     */
+    public MediaDriver.Context newContext() {
+        MediaDriver.Context context = new MediaDriver.Context()
+            .threadingMode(threadingMode)
+            .termBufferSparseFile(termBufferSparseFile)
+            .preTouchMappedMemory(preTouchMappedMemory)
+            .dirDeleteOnStart(true)
+            .dirDeleteOnShutdown(true);
+        
+        if (conductorIdleStrategy != null) {
+            context.conductorIdleStrategy(conductorIdleStrategy.newIdleStrategy())
+                .sharedIdleStrategy(conductorIdleStrategy.newIdleStrategy());
+        }
+        if (senderIdleStrategy != null) {
+            context.senderIdleStrategy(senderIdleStrategy.newIdleStrategy())
+                .sharedNetworkIdleStrategy(senderIdleStrategy.newIdleStrategy());
+        }
+        if (receiverIdleStrategy != null) {
+            context.receiverIdleStrategy(receiverIdleStrategy.newIdleStrategy());
+        }
+        
+        if (devShmDirectory && System.getProperty(CommonContext.AERON_DIR_PROP_NAME) == null &&
+            !context.aeronDirectoryName().startsWith(DEV_SHM) && new File(DEV_SHM).isDirectory()) {
+            context.aeronDirectoryName(DEV_SHM + File.separator + "aeron-" + System.getProperty("user.name"));
+        }
+        
+        return context;
+    }
+    
+    public ThreadingMode threadingMode() {
+        return threadingMode;
+    }
+    
+    /**
+     * The conductor idle strategy, or null to keep Aeron's configured default
+     */
+    public IdleStrategyType conductorIdleStrategy() {
+        return conductorIdleStrategy;
+    }
+    
+    public IdleStrategyType senderIdleStrategy() {
+        return senderIdleStrategy;
+    }
+    
+    public IdleStrategyType receiverIdleStrategy() {
+        return receiverIdleStrategy;
+    }
+    
+    /**
+     * Whether term buffers are sparse files that take memory as they are written, rather than
+     * being allocated up front
+     */
+    public boolean termBufferSparseFile() {
+        return termBufferSparseFile;
+    }
+    
+    /**
+     * Whether the driver touches every page of new term buffers before use, so the first messages
+     * do not take page faults
+     */
+    public boolean preTouchMappedMemory() {
+        return preTouchMappedMemory;
+    }
+    
+    /**
+     * Whether the driver directory is kept on /dev/shm where it exists and {@code aeron.dir} is not set
+     */
+    public boolean devShmDirectory() {
+        return devShmDirectory;
+    }
+}
@@ -0,0 +1,54 @@
+package com.playground.sbeaeronvirtualthreads.util;
+
+import io.aeron.Aeron;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reference-counted Aeron client shared by every publisher and subscriber in the JVM.
+ *
+ * Each {@link Aeron#connect()} starts its own client conductor thread, maps the CnC file and
+ * registers with the driver. Passing the shared client to the publisher and subscriber
+ * constructors that take an {@link Aeron} costs that once per process instead of once per stream.
+ */
+public class SharedAeronClient {
+    private static final Logger log = LoggerFactory.getLogger(SharedAeronClient.class);
+    private static Aeron aeron;
+    private static int referenceCount = 0;
+    
+    /**
+     * Get the shared client, connecting it on first use. Pair every call with {@link #release()}.
+     */
+    public static synchronized Aeron acquire() {
+        if (referenceCount == 0) {
+            aeron = Aeron.connect();
+            log.info("Shared Aeron client connected");
+        }
+        referenceCount++;
+        log.debug("Shared Aeron client reference count: {}", referenceCount);
+        return aeron;
+    }
+    
+    /**
+     * Release a reference, closing the client when no longer needed
+     * @throws IllegalStateException if there is no reference left to release
+     */
+    public static synchronized void release() {
+        if (referenceCount == 0) {
+            throw new IllegalStateException("Shared Aeron client released more times than acquired");
+        }
+        referenceCount--;
+        if (referenceCount == 0 && aeron != null) {
+            aeron.close();
+            aeron = null;
+            log.info("Shared Aeron client closed");
+        }
+    }
+    
+    /**
+     * Check if the shared client is connected
+     */
+    public static synchronized boolean isConnected() {
+        return aeron != null;
+    }
+}
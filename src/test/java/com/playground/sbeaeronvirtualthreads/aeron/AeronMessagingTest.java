@@ -1,24 +1,48 @@
 package com.playground.sbeaeronvirtualthreads.aeron;
 
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.PerformanceMetrics;
 import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.PerformanceMetricsSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeBatchSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeJsonDirectSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeJsonSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeProtobufDirectSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeProtobufSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriver;
 import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import com.playground.sbeaeronvirtualthreads.util.SharedAeronClient;
+import io.aeron.Aeron;
+import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.jupiter.api.*;
 
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for Aeron messaging with different serialization formats
@@ -161,6 +185,511 @@ class AeronMessagingTest {
         assertThat(received.symbol()).isEqualTo(trade.symbol());
     }
     
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("serializerProvider")
+    void shouldPublishAndReceiveMessageEncodedIntoClaimedBuffer(String name, MessageSerializer<Trade> serializer) 
+            throws InterruptedException {
+        // Given
+        Trade trade = Trade.create(4L, "AMZN", 178.30, 25, 'S', "COUNTERPARTY_E");
+        
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        FragmentHandler handler = (buffer, offset, length, header) -> {
+            Trade received = serializer.deserialize(buffer, offset, length);
+            receivedTrades.add(received);
+            latch.countDown();
+        };
+        
+        subscriber.startPolling(handler);
+        Thread.sleep(100);
+        
+        // When - SBE claims log buffer space, JSON falls back to the staging buffer
+        int length = publisher.publish(trade, serializer);
+        
+        // Then
+        assertThat(length).isGreaterThan(0);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(receivedTrades).hasSize(1);
+        assertThat(receivedTrades.get(0)).isEqualTo(trade);
+    }
+    
+    @Test
+    void shouldPublishTradesInBatchFrames() throws InterruptedException {
+        // Given
+        int tradeCount = 500;
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < tradeCount; i++) {
+            trades.add(Trade.create(i, "SYM" + (i % 10), 100.0 + i, 100, 'B', "COUNTERPARTY_" + i));
+        }
+        
+        TradeBatchSbeSerializer serializer = new TradeBatchSbeSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(tradeCount);
+        
+        FragmentHandler handler = (buffer, offset, length, header) ->
+            serializer.decodeBatch(buffer, offset, length, trade -> {
+                receivedTrades.add(trade);
+                latch.countDown();
+            });
+        
+        subscriber.startPolling(handler);
+        Thread.sleep(100);
+        
+        // When
+        int frames = publisher.publishBatch(trades, 32, serializer);
+        
+        // Then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(frames).isGreaterThanOrEqualTo(tradeCount / 32).isLessThan(tradeCount);
+        assertThat(receivedTrades).containsExactlyElementsOf(trades);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1})
+    void shouldRejectBatchSizeBelowOne(int maxBatchSize) {
+        List<Trade> trades = List.of(Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"));
+        
+        assertThatThrownBy(() -> publisher.publishBatch(trades, maxBatchSize, new TradeBatchSbeSerializer()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void shouldDispatchMultipleMessageTypesOnOneStream() throws InterruptedException {
+        // Given
+        Trade trade = Trade.create(5L, "NVDA", 880.10, 10, 'B', "COUNTERPARTY_F");
+        MarketData marketData = MarketData.create("NVDA", 880.05, 880.15, 400, 250);
+        PerformanceMetrics metrics = new PerformanceMetrics(3, 192, 1200, 800, 2000, "multiplex");
+        
+        List<Object> received = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        MessageDispatcher dispatcher = new MessageDispatcher()
+            .onTrade(message -> { received.add(message); latch.countDown(); })
+            .onMarketData(message -> { received.add(message); latch.countDown(); })
+            .onPerformanceMetrics(message -> { received.add(message); latch.countDown(); });
+        
+        subscriber.startPolling(dispatcher);
+        Thread.sleep(100);
+        
+        // When
+        publisher.publish(marketData, new MarketDataSbeSerializer());
+        publisher.publish(trade, new TradeSbeSerializer());
+        publisher.publish(metrics, new PerformanceMetricsSbeSerializer());
+        
+        // Then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly(marketData, trade, metrics);
+        assertThat(dispatcher.getUnknownMessages()).isZero();
+    }
+    
+    @Test
+    void shouldPublishAndReceiveOnSharedClient() throws InterruptedException {
+        // Given
+        Trade trade = Trade.create(6L, "META", 495.20, 15, 'S', "COUNTERPARTY_G");
+        MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+        Aeron aeron = SharedAeronClient.acquire();
+        
+        try {
+            List<Trade> receivedTrades = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(1);
+            
+            try (AeronPublisher sharedPublisher = new AeronPublisher(aeron, CHANNEL, STREAM_ID + 1, BUFFER_SIZE);
+                 AeronSubscriber sharedSubscriber = new AeronSubscriber(aeron, CHANNEL, STREAM_ID + 1)) {
+                
+                sharedSubscriber.startPolling((buffer, offset, length, header) -> {
+                    receivedTrades.add(serializer.deserialize(buffer, offset, length));
+                    latch.countDown();
+                });
+                
+                int attempts = 0;
+                while (!sharedPublisher.isConnected() && attempts++ < 100) {
+                    Thread.sleep(10);
+                }
+                
+                // When
+                sharedPublisher.publish(trade, serializer);
+                
+                // Then
+                assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(receivedTrades).containsExactly(trade);
+            }
+            
+            // Closing the publisher and subscriber leaves the shared client open
+            assertThat(aeron.isClosed()).isFalse();
+        } finally {
+            SharedAeronClient.release();
+        }
+        
+        assertThat(aeron.isClosed()).isTrue();
+        assertThatThrownBy(SharedAeronClient::release).isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void shouldPollSubscriptionFromAgentPool() throws InterruptedException {
+        // Given
+        Trade trade = Trade.create(7L, "ORCL", 125.40, 30, 'B', "COUNTERPARTY_H");
+        MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        try (SubscriptionAgentPool pool = new SubscriptionAgentPool("test-pool", 1, IdleStrategyType.SLEEPING)) {
+            Agent agent = subscriber.asAgent((buffer, offset, length, header) -> {
+                receivedTrades.add(serializer.deserialize(buffer, offset, length));
+                latch.countDown();
+            });
+            pool.add(agent);
+            
+            // When
+            publisher.publish(trade, serializer);
+            
+            // Then
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(receivedTrades).containsExactly(trade);
+            
+            pool.remove(agent);
+            assertThat(pool.getAgentCount()).isZero();
+        }
+    }
+    
+    @Test
+    void shouldPublishFromManyVirtualThreadsThroughRingBuffer() throws InterruptedException {
+        // Given
+        int producerCount = 64;
+        int messagesPerProducer = 50;
+        MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+        long[] lastTradeIdByProducer = new long[producerCount];
+        Arrays.fill(lastTradeIdByProducer, -1);
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(producerCount * messagesPerProducer);
+        
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            Trade trade = subscriberSerializer.deserialize(buffer, offset, length);
+            int producer = trade.quantity();
+            if (trade.tradeId() <= lastTradeIdByProducer[producer]) {
+                outOfOrder.incrementAndGet();
+            }
+            lastTradeIdByProducer[producer] = trade.tradeId();
+            latch.countDown();
+        });
+        
+        // When
+        try (MultiProducerPublisher multiProducerPublisher =
+                 new MultiProducerPublisher(publisher, 64 * 1024, IdleStrategyType.BACKOFF);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < producerCount; p++) {
+                int producer = p;
+                executor.submit(() -> {
+                    MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+                    for (int i = 0; i < messagesPerProducer; i++) {
+                        Trade trade = Trade.create(i, "MSFT", 380.50, producer, 'S', "COUNTERPARTY_I");
+                        multiProducerPublisher.publish(trade, serializer);
+                    }
+                });
+            }
+            
+            // Then - every message arrives and each producer's messages keep their order
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(outOfOrder.get()).isZero();
+        }
+    }
+    
+    @Test
+    void shouldHoldRingBufferMessagesUntilSubscriberConnects() throws InterruptedException {
+        // Given - a publication with no subscriber yet
+        int messageCount = 100;
+        MessageSerializer<Trade> publisherSerializer = new TradeSbeSerializer();
+        MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+        List<Long> receivedTradeIds = new ArrayList<>();
+        
+        try (AeronPublisher unconnectedPublisher = new AeronPublisher(CHANNEL, STREAM_ID + 3, BUFFER_SIZE);
+             MultiProducerPublisher multiProducerPublisher =
+                 new MultiProducerPublisher(unconnectedPublisher, 64 * 1024, IdleStrategyType.BACKOFF)) {
+            
+            // When - producers queue trades while the drainer cannot forward them
+            for (int i = 0; i < messageCount; i++) {
+                assertThat(multiProducerPublisher.tryPublish(
+                    Trade.create(i, "ORCL", 120.40, 10, 'B', "COUNTERPARTY_L"), publisherSerializer)).isTrue();
+            }
+            Thread.sleep(100);
+            assertThat(multiProducerPublisher.queuedBytes()).isPositive();
+            
+            try (AeronSubscriber lateSubscriber = new AeronSubscriber(CHANNEL, STREAM_ID + 3)) {
+                long deadline = System.currentTimeMillis() + 5000;
+                while (receivedTradeIds.size() < messageCount && System.currentTimeMillis() < deadline) {
+                    lateSubscriber.pollOnce((buffer, offset, length, header) ->
+                        receivedTradeIds.add(subscriberSerializer.deserialize(buffer, offset, length).tradeId()),
+                        AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+                }
+            }
+        }
+        
+        // Then - nothing queued before the subscriber connected was lost
+        assertThat(receivedTradeIds).hasSize(messageCount).isSorted().doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void shouldUnpackCoalescedFramesIntoIndividualMessages() throws InterruptedException {
+        // Given
+        int messageCount = 1000;
+        MessageSerializer<Trade> publisherSerializer = new TradeSbeSerializer();
+        MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+        List<Long> receivedTradeIds = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(messageCount);
+        
+        publisher.enableCoalescing(1_000_000);
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            receivedTradeIds.add(subscriberSerializer.deserialize(buffer, offset, length).tradeId());
+            latch.countDown();
+        });
+        
+        // When
+        for (int i = 0; i < messageCount; i++) {
+            publisher.publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), publisherSerializer);
+        }
+        publisher.flushCoalesced();
+        
+        // Then - every trade arrives on its own, in order, from far fewer frames
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        System.out.println("Coalesced " + publisher.getCoalescedMessages() + " messages into " +
+            publisher.getCoalescedFrames() + " frames");
+        assertThat(publisher.getCoalescedMessages()).isEqualTo(messageCount);
+        assertThat(publisher.getCoalescedFrames()).isLessThan(messageCount / 10);
+        assertThat(subscriber.getMessagesReceived()).isEqualTo(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            assertThat(receivedTradeIds.get(i)).isEqualTo(i);
+        }
+    }
+    
+    @Test
+    void shouldFlushCoalescedFrameOnceDeadlinePasses() throws InterruptedException {
+        // Given
+        Trade trade = Trade.create(8L, "NFLX", 610.75, 15, 'S', "COUNTERPARTY_J");
+        MessageSerializer<Trade> serializer = new TradeJsonSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        publisher.enableCoalescing(50_000);
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            receivedTrades.add(serializer.deserialize(buffer, offset, length));
+            latch.countDown();
+        });
+        
+        // When - a single message does not fill the frame, so it waits for the deadline
+        publisher.publish(trade, serializer);
+        assertThat(publisher.flushCoalescedIfDue()).isZero();
+        
+        Thread.sleep(60);
+        int flushed = publisher.flushCoalescedIfDue();
+        
+        // Then
+        assertThat(flushed).isEqualTo(1);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(receivedTrades).containsExactly(trade);
+    }
+    
+    @Test
+    void shouldFlushCoalescedFrameFromPublishingDutyCycle() throws InterruptedException {
+        // Given - a duty cycle that publishes one message and then goes quiet
+        Trade trade = Trade.create(11L, "SHOP", 65.20, 40, 'B', "COUNTERPARTY_K");
+        MessageSerializer<Trade> serializer = new TradeJsonSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        publisher.enableCoalescing(50_000);
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            receivedTrades.add(serializer.deserialize(buffer, offset, length));
+            latch.countDown();
+        });
+        
+        Agent publishingAgent = new Agent() {
+            private boolean published;
+            
+            @Override
+            public int doWork() {
+                if (published) {
+                    return 0;
+                }
+                published = true;
+                publisher.publish(trade, serializer);
+                return 1;
+            }
+            
+            @Override
+            public String roleName() {
+                return "test-publisher";
+            }
+        };
+        
+        // When
+        try (AgentRunner runner = new AgentRunner(IdleStrategyType.BACKOFF.newIdleStrategy(), Throwable::printStackTrace,
+            null, new CompositeAgent(publishingAgent, publisher.asFlushAgent()))) {
+            AgentRunner.startOnThread(runner);
+            
+            // Then - the flush agent sends the partly filled frame without another publish
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(receivedTrades).containsExactly(trade);
+        assertThat(publisher.getCoalescedFrames()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldReassembleMessagesLargerThanMtu() throws InterruptedException {
+        // Given - a counterparty far larger than both the MTU and the publisher's initial buffer
+        Trade trade = Trade.create(9L, "SNAP", 99.95, 1, 'B', "X".repeat(100_000));
+        MessageSerializer<Trade> serializer = new TradeJsonSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            receivedTrades.add(serializer.deserialize(buffer, offset, length));
+            latch.countDown();
+        });
+        
+        // When
+        int length = publisher.publish(trade, serializer);
+        
+        // Then
+        assertThat(length).isGreaterThan(publisher.maxPayloadLength()).isGreaterThan(BUFFER_SIZE);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(receivedTrades).containsExactly(trade);
+    }
+    
+    @Test
+    void shouldReassembleMessageSplitAcrossPollsWithNewHandlerEachPoll() {
+        // Given
+        Trade trade = Trade.create(10L, "UBER", 72.10, 3, 'S', "Y".repeat(20_000));
+        MessageSerializer<Trade> serializer = new TradeJsonSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        
+        // When - one fragment per poll, through a capturing lambda that is a new instance every call
+        int length = publisher.publish(trade, serializer);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (receivedTrades.isEmpty() && System.currentTimeMillis() < deadline) {
+            subscriber.pollOnce(
+                (buffer, offset, fragmentLength, header) ->
+                    receivedTrades.add(serializer.deserialize(buffer, offset, fragmentLength)), 1);
+        }
+        
+        // Then
+        assertThat(length).isGreaterThan(publisher.maxPayloadLength());
+        assertThat(receivedTrades).containsExactly(trade);
+    }
+    
+    @Test
+    void shouldPublishMegabyteSnapshotFromAnyBuffer() throws InterruptedException {
+        // Given
+        int snapshotLength = 1024 * 1024;
+        UnsafeBuffer snapshot = new UnsafeBuffer(new byte[snapshotLength]);
+        for (int i = 0; i < snapshotLength; i++) {
+            snapshot.putByte(i, (byte) i);
+        }
+        
+        List<byte[]> received = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        subscriber.startPolling((buffer, offset, length, header) -> {
+            byte[] bytes = new byte[length];
+            buffer.getBytes(offset, bytes);
+            received.add(bytes);
+            latch.countDown();
+        });
+        
+        // When
+        publisher.publish(snapshot, 0, snapshotLength);
+        
+        // Then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).isEqualTo(snapshot.byteArray());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldRedeliverAbortedMessagesWhenDownstreamQueueIsFull(boolean coalescing) {
+        // Given - a downstream queue far smaller than the number of messages
+        int messageCount = 500;
+        MessageSerializer<Trade> publisherSerializer = new TradeSbeSerializer();
+        MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+        Queue<Trade> downstream = new ArrayBlockingQueue<>(8);
+        List<Long> receivedTradeIds = new ArrayList<>();
+        AtomicInteger aborts = new AtomicInteger();
+        
+        ControlledFragmentHandler handler = (buffer, offset, length, header) -> {
+            if (!downstream.offer(subscriberSerializer.deserialize(buffer, offset, length))) {
+                aborts.incrementAndGet();
+                return ControlledFragmentHandler.Action.ABORT;
+            }
+            return ControlledFragmentHandler.Action.CONTINUE;
+        };
+        
+        if (coalescing) {
+            publisher.enableCoalescing(1_000_000);
+        }
+        for (int i = 0; i < messageCount; i++) {
+            publisher.publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), publisherSerializer);
+        }
+        publisher.flushCoalesced();
+        
+        // When - the consumer drains a few messages between polls
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (receivedTradeIds.size() < messageCount && System.currentTimeMillis() < deadline) {
+            subscriber.controlledPollOnce(handler, AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+            for (int i = 0; i < 3 && !downstream.isEmpty(); i++) {
+                receivedTradeIds.add(downstream.poll().tradeId());
+            }
+        }
+        
+        // Then - the poller was held back but nothing was dropped, repeated or reordered
+        System.out.println("Controlled poll with coalescing=" + coalescing + " aborted " + aborts.get() + " times");
+        assertThat(aborts.get()).isPositive();
+        assertThat(receivedTradeIds).hasSize(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            assertThat(receivedTradeIds.get(i)).isEqualTo(i);
+        }
+    }
+    
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldBreakControlledPollAfterEachBatch(boolean coalescing) {
+        // Given
+        int messageCount = 100;
+        int batchSize = 7;
+        MessageSerializer<Trade> publisherSerializer = new TradeSbeSerializer();
+        MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+        List<Long> receivedTradeIds = new ArrayList<>();
+        
+        ControlledFragmentHandler handler = (buffer, offset, length, header) -> {
+            receivedTradeIds.add(subscriberSerializer.deserialize(buffer, offset, length).tradeId());
+            return receivedTradeIds.size() % batchSize == 0 ?
+                ControlledFragmentHandler.Action.BREAK : ControlledFragmentHandler.Action.CONTINUE;
+        };
+        
+        if (coalescing) {
+            publisher.enableCoalescing(1_000_000);
+        }
+        for (int i = 0; i < messageCount; i++) {
+            publisher.publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), publisherSerializer);
+        }
+        publisher.flushCoalesced();
+        
+        // When
+        int polls = 0;
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (receivedTradeIds.size() < messageCount && System.currentTimeMillis() < deadline) {
+            int before = receivedTradeIds.size();
+            subscriber.controlledPollOnce(handler, messageCount);
+            
+            // Then - no poll hands over more than one batch
+            assertThat(receivedTradeIds.size() - before).isLessThanOrEqualTo(batchSize);
+            polls++;
+        }
+        
+        assertThat(polls).isGreaterThanOrEqualTo(messageCount / batchSize);
+        assertThat(receivedTradeIds).hasSize(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            assertThat(receivedTradeIds.get(i)).isEqualTo(i);
+        }
+    }
+    
     @ParameterizedTest
     @ValueSource(ints = {10, 100, 1000})
     void shouldHandleMultipleMessages(int messageCount) throws InterruptedException {
@@ -214,4 +743,50 @@ class AeronMessagingTest {
         assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
         assertThat(receivedTrades).hasSize(1);
     }
+    
+    @Test
+    void shouldDriveInvokerModeDriverFromApplicationDutyCycle() {
+        // Given - a driver and client with no threads of their own, alongside the shared driver
+        Trade trade = Trade.create(101L, "NFLX", 410.50, 20, 'S', "COUNTERPARTY_E");
+        MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[BUFFER_SIZE]);
+        int length = serializer.serialize(trade, buffer, 0);
+        List<Trade> receivedTrades = new ArrayList<>();
+        FragmentHandler handler = (msgBuffer, offset, msgLength, header) ->
+            receivedTrades.add(serializer.deserialize(msgBuffer, offset, msgLength));
+        
+        EmbeddedMediaDriver invokerDriver = EmbeddedMediaDriver.withAgentInvoker();
+        try (Aeron aeron = invokerDriver.connectClient();
+             AeronPublisher invokerPublisher = new AeronPublisher(aeron, CHANNEL, STREAM_ID + 2, BUFFER_SIZE);
+             AeronSubscriber invokerSubscriber = new AeronSubscriber(aeron, CHANNEL, STREAM_ID + 2)) {
+            assertThat(invokerDriver.isInvokerMode()).isTrue();
+            assertThat(aeron.conductorAgentInvoker()).isNotNull();
+            
+            // When - this thread publishes, polls and does the driver's work in one loop
+            boolean published = false;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (receivedTrades.isEmpty() && System.nanoTime() < deadline) {
+                invokerDriver.invoke();
+                if (!published && invokerPublisher.isConnected()) {
+                    published = invokerPublisher.tryPublish(buffer, 0, length);
+                }
+                invokerSubscriber.pollOnce(handler, AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+            }
+            
+            // Then
+            assertThat(receivedTrades).containsExactly(trade);
+        } finally {
+            invokerDriver.close();
+        }
+    }
+    
+    static Stream<Arguments> serializerProvider() {
+        return Stream.of(
+            Arguments.of("SBE", new TradeSbeSerializer()),
+            Arguments.of("Protobuf", new TradeProtobufSerializer()),
+            Arguments.of("Protobuf-Direct", new TradeProtobufDirectSerializer()),
+            Arguments.of("JSON", new TradeJsonSerializer()),
+            Arguments.of("JSON-Direct", new TradeJsonDirectSerializer())
+        );
+    }
 }
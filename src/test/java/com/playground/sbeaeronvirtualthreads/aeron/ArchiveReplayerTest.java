@@ -0,0 +1,135 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedArchive;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.Aeron;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for recording a trade stream with the embedded archive and replaying it
+ */
+class ArchiveReplayerTest {
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 1301;
+    private static final int REPLAY_STREAM_ID = 1302;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int TRADE_COUNT = 100;
+    
+    private static EmbeddedArchive archive;
+    
+    private final MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+    private final List<Trade> published = new ArrayList<>();
+    private ArchiveReplayer replayer;
+    private AeronPublisher publisher;
+    private long recordingSubscriptionId;
+    private long recordingId;
+    
+    @BeforeAll
+    static void startArchive() {
+        EmbeddedMediaDriverManager.start();
+        archive = new EmbeddedArchive();
+    }
+    
+    @AfterAll
+    static void stopArchive() {
+        archive.close();
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        replayer = new ArchiveReplayer(archive.client(), REPLAY_STREAM_ID);
+        recordingSubscriptionId = archive.startRecording(CHANNEL, STREAM_ID);
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        // Timestamps 1 to TRADE_COUNT so replays can start part way through by time
+        for (int i = 1; i <= TRADE_COUNT; i++) {
+            Trade trade = new Trade(i, i, 100.0 + i, 10 * i, i % 2 == 0 ? 'B' : 'S', "AAPL", "COUNTERPARTY_A");
+            publisher.publish(trade, serializer);
+            published.add(trade);
+        }
+        
+        attempts = 0;
+        while ((recordingId = archive.findLatestRecordingId(CHANNEL, STREAM_ID)) == Aeron.NULL_VALUE &&
+            attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        attempts = 0;
+        while (replayer.recordedPosition(recordingId) < publisher.position() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        archive.stopRecording(recordingSubscriptionId);
+        publisher.close();
+    }
+    
+    @Test
+    void shouldReplayWholeRecordingThroughSerializer() {
+        // Given
+        long startPosition = archive.client().getStartPosition(recordingId);
+        List<Trade> replayed = new ArrayList<>();
+        
+        // When
+        long count = replayer.replay(recordingId, startPosition, serializer, replayed::add);
+        
+        // Then
+        assertThat(count).isEqualTo(TRADE_COUNT);
+        assertThat(replayed).containsExactlyElementsOf(published);
+    }
+    
+    @Test
+    void shouldReplayFromPositionSeenByEarlierHandler() {
+        // Given - the position after the 60th trade, as a consumer would have checkpointed it
+        long startPosition = archive.client().getStartPosition(recordingId);
+        long[] checkpoint = new long[1];
+        int[] handled = new int[1];
+        replayer.replay(recordingId, startPosition, (buffer, offset, length, header) -> {
+            if (++handled[0] == 60) {
+                checkpoint[0] = header.position();
+            }
+        });
+        List<Trade> replayed = new ArrayList<>();
+        
+        // When
+        long count = replayer.replay(recordingId, checkpoint[0], serializer, replayed::add);
+        
+        // Then
+        assertThat(count).isEqualTo(TRADE_COUNT - 60);
+        assertThat(replayed).containsExactlyElementsOf(published.subList(60, TRADE_COUNT));
+    }
+    
+    @Test
+    void shouldReplayFromTimestamp() {
+        // Given
+        List<Trade> replayed = new ArrayList<>();
+        
+        // When
+        long count = replayer.replayFromTimestamp(recordingId, 81, serializer, Trade::timestamp, replayed::add);
+        
+        // Then
+        System.out.println("Replayed " + count + " of " + replayer.getMessagesReplayed() + " recorded trades");
+        assertThat(count).isEqualTo(20);
+        assertThat(replayed.get(0).tradeId()).isEqualTo(81);
+        assertThat(replayer.getMessagesReplayed()).isEqualTo(TRADE_COUNT);
+    }
+}
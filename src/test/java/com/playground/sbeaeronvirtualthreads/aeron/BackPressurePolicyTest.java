@@ -0,0 +1,288 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the publisher back pressure policies, using a small term so that a subscriber which
+ * is not polling back pressures the publication after a few hundred trades
+ */
+class BackPressurePolicyTest {
+    private static final String CHANNEL = "aeron:ipc?term-length=64k";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int FRAGMENT_LIMIT = 100;
+    private static final int MESSAGE_COUNT = 2000;
+    
+    private final MessageSerializer<Trade> publisherSerializer = new TradeSbeSerializer();
+    private final MessageSerializer<Trade> subscriberSerializer = new TradeSbeSerializer();
+    private final List<Long> receivedTradeIds = new ArrayList<>();
+    private final FragmentHandler handler = (buffer, offset, length, header) ->
+        receivedTradeIds.add(subscriberSerializer.deserialize(buffer, offset, length).tradeId());
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    
+    @BeforeAll
+    static void startMediaDriver() {
+        EmbeddedMediaDriverManager.start();
+    }
+    
+    @AfterAll
+    static void stopMediaDriver() {
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+    
+    @Test
+    void shouldDropNewestMessagesWhenBackPressured() throws InterruptedException {
+        // Given
+        connect(BackPressurePolicy.DROP_NEWEST, 1101);
+        
+        // When - nothing is polling, so the publication fills up
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            publisher.publish(trade(i), publisherSerializer);
+        }
+        pollAll();
+        
+        // Then - the trades that fitted arrive and everything after them was dropped
+        System.out.println("DROP_NEWEST received " + receivedTradeIds.size() +
+            " dropped " + publisher.getDroppedMessages());
+        assertThat(publisher.getDroppedMessages()).isPositive();
+        assertThat(publisher.getBackPressureEvents()).isEqualTo(publisher.getDroppedMessages());
+        assertThat(receivedTradeIds.size() + publisher.getDroppedMessages()).isEqualTo(MESSAGE_COUNT);
+        for (int i = 0; i < receivedTradeIds.size(); i++) {
+            assertThat(receivedTradeIds.get(i)).isEqualTo(i);
+        }
+    }
+    
+    @Test
+    void shouldQueueAndDropOldestMessagesWhenBackPressured() throws InterruptedException {
+        // Given - enough trades to overflow the pending queue as well as the publication
+        connect(BackPressurePolicy.DROP_OLDEST, 1102);
+        int messageCount = 50_000;
+        
+        // When
+        for (int i = 0; i < messageCount; i++) {
+            publisher.publish(trade(i), publisherSerializer);
+        }
+        assertThat(publisher.getPendingBytes()).isPositive();
+        
+        while (!publisher.flushPending()) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+        }
+        pollAll();
+        
+        // Then - the newest trade always arrives, in order, and only the oldest queued were dropped
+        System.out.println("DROP_OLDEST received " + receivedTradeIds.size() +
+            " dropped " + publisher.getDroppedMessages());
+        assertThat(publisher.getDroppedMessages()).isPositive();
+        assertThat(publisher.getPendingBytes()).isZero();
+        assertThat(receivedTradeIds.size() + publisher.getDroppedMessages()).isEqualTo(messageCount);
+        assertThat(receivedTradeIds).isSorted().doesNotHaveDuplicates();
+        assertThat(receivedTradeIds.get(receivedTradeIds.size() - 1)).isEqualTo(messageCount - 1);
+    }
+    
+    @Test
+    void shouldNotPublishBytesAheadOfQueuedMessages() throws InterruptedException {
+        // Given - trades queued behind a full publication
+        connect(BackPressurePolicy.DROP_OLDEST, 1106);
+        int messageCount = 5000;
+        for (int i = 0; i < messageCount; i++) {
+            publisher.publish(trade(i), publisherSerializer);
+        }
+        assertThat(publisher.getPendingBytes()).isPositive();
+        
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int length = publisherSerializer.serialize(trade(messageCount), new UnsafeBuffer(bytes), 0);
+        
+        // When / Then - the single offer waits its turn behind the queue
+        assertThat(publisher.publish(bytes, 0, length)).isFalse();
+        
+        while (!publisher.flushPending()) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+        }
+        pollAll();
+        assertThat(publisher.publish(bytes, 0, length)).isTrue();
+        pollAll();
+        
+        assertThat(receivedTradeIds).isSorted().doesNotHaveDuplicates();
+        assertThat(receivedTradeIds.get(receivedTradeIds.size() - 1)).isEqualTo(messageCount);
+    }
+    
+    @Test
+    void shouldNotSpinSendingCoalescedFrameAheadOfBytes() throws InterruptedException {
+        // Given - a publication filled by single offers, then a trade left in an open coalesced frame
+        connect(BackPressurePolicy.SPIN, 1107);
+        publisher.enableCoalescing(60_000_000);
+        
+        long tradeId = 0;
+        while (publisher.getBackPressureEvents() == 0) {
+            if (publishBytes(tradeId)) {
+                tradeId++;
+            }
+        }
+        long coalescedTradeId = tradeId;
+        publisher.publish(trade(coalescedTradeId), publisherSerializer);
+        long lastTradeId = coalescedTradeId + 1;
+        
+        // When / Then - the frame cannot be sent, so the single offer gives up instead of spinning
+        assertThat(publishBytes(lastTradeId)).isFalse();
+        assertThat(publisher.getCoalescedFrames()).isZero();
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        boolean published = false;
+        while (!published && System.currentTimeMillis() < deadline) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+            published = publishBytes(lastTradeId);
+        }
+        pollAll();
+        
+        // Then - the coalesced trade went out first and nothing was lost or reordered
+        assertThat(published).isTrue();
+        assertThat(publisher.getCoalescedFrames()).isEqualTo(1);
+        assertThat(receivedTradeIds).hasSize((int) lastTradeId + 1).isSorted().doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void shouldCloseWithoutWaitingForBackPressuredCoalescedFrame() throws InterruptedException {
+        // Given - a back pressured publication with a trade left in an open coalesced frame
+        connect(BackPressurePolicy.FAIL_FAST, 1108);
+        publisher.enableCoalescing(60_000_000);
+        
+        long tradeId = 0;
+        while (publisher.getBackPressureEvents() == 0) {
+            if (publishBytes(tradeId)) {
+                tradeId++;
+            }
+        }
+        publisher.publish(trade(tradeId), publisherSerializer);
+        
+        // When
+        AeronPublisher closing = publisher;
+        publisher = null;
+        closing.close();
+        
+        // Then - the frame was dropped instead of failing the close
+        assertThat(closing.getDroppedMessages()).isEqualTo(1);
+        assertThat(closing.getFailedPublishes()).isZero();
+        assertThat(closing.isConnected()).isFalse();
+    }
+    
+    @Test
+    void shouldReportNoMessagesSentWhenCoalescedFrameIsDropped() throws InterruptedException {
+        // Given - a back pressured publication with trades left in an open coalesced frame
+        connect(BackPressurePolicy.DROP_NEWEST, 1109);
+        publisher.enableCoalescing(60_000_000);
+        
+        long tradeId = 0;
+        while (publisher.getBackPressureEvents() == 0) {
+            if (publishBytes(tradeId)) {
+                tradeId++;
+            }
+        }
+        publisher.publish(trade(tradeId), publisherSerializer);
+        publisher.publish(trade(tradeId + 1), publisherSerializer);
+        
+        // When
+        int sent = publisher.flushCoalesced();
+        
+        // Then
+        assertThat(sent).isZero();
+        assertThat(publisher.getDroppedMessages()).isEqualTo(2);
+        assertThat(publisher.getCoalescedFrames()).isZero();
+    }
+    
+    @Test
+    void shouldFailFastWhenBackPressured() throws InterruptedException {
+        // Given
+        connect(BackPressurePolicy.FAIL_FAST, 1103);
+        
+        // When / Then
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < MESSAGE_COUNT; i++) {
+                publisher.publish(trade(i), publisherSerializer);
+            }
+        }).isInstanceOf(BackPressureException.class);
+        
+        assertThat(publisher.getFailedPublishes()).isEqualTo(1);
+        assertThat(publisher.getBackPressureEvents()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldParkUntilSubscriberCatchesUp() throws InterruptedException {
+        // Given
+        connect(BackPressurePolicy.BOUNDED_SPIN_THEN_PARK, 1104);
+        
+        // When - the publisher parks on a virtual thread until polling starts
+        Thread producer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < MESSAGE_COUNT; i++) {
+                publisher.publish(trade(i), publisherSerializer);
+            }
+        });
+        Thread.sleep(100);
+        
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (receivedTradeIds.size() < MESSAGE_COUNT && System.currentTimeMillis() < deadline) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+        }
+        producer.join();
+        
+        // Then - nothing is lost and the wait parked rather than spun
+        System.out.println("BOUNDED_SPIN_THEN_PARK parked " + publisher.getParkedPublishes() + " publishes");
+        assertThat(receivedTradeIds).hasSize(MESSAGE_COUNT).isSorted();
+        assertThat(publisher.getParkedPublishes()).isPositive();
+        assertThat(publisher.getDroppedMessages()).isZero();
+    }
+    
+    private void connect(BackPressurePolicy policy, int streamId) throws InterruptedException {
+        publisher = new AeronPublisher(CHANNEL, streamId, BUFFER_SIZE, policy);
+        subscriber = new AeronSubscriber(CHANNEL, streamId);
+        
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        assertThat(publisher.isConnected()).withFailMessage("Publisher failed to connect after 1 second").isTrue();
+        assertThat(publisher.getBackPressurePolicy()).isEqualTo(policy);
+    }
+    
+    private void pollAll() {
+        while (subscriber.pollOnce(handler, FRAGMENT_LIMIT) > 0) {
+            // Keep polling
+        }
+    }
+    
+    private boolean publishBytes(long tradeId) {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        int length = publisherSerializer.serialize(trade(tradeId), new UnsafeBuffer(bytes), 0);
+        return publisher.publish(bytes, 0, length);
+    }
+    
+    private static Trade trade(long tradeId) {
+        return Trade.create(tradeId, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+    }
+}
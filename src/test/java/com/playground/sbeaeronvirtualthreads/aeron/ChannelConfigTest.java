@@ -0,0 +1,102 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.ChannelUri;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for building IPC and UDP channel URIs
+ */
+class ChannelConfigTest {
+    
+    private static final int STREAM_ID = 1201;
+    private static final int BUFFER_SIZE = 8192;
+    
+    @Test
+    void shouldBuildIpcChannel() {
+        // When
+        String channel = ChannelConfig.ipc().termLength(64 * 1024).socketRcvbufLength(1024 * 1024).build();
+        
+        // Then - socket buffers only apply to UDP
+        ChannelUri uri = ChannelUri.parse(channel);
+        assertThat(uri.media()).isEqualTo("ipc");
+        assertThat(uri.get("term-length")).isEqualTo("65536");
+        assertThat(uri.get("so-rcvbuf")).isNull();
+        assertThat(ChannelConfig.ipc().build()).isEqualTo("aeron:ipc");
+    }
+    
+    @Test
+    void shouldBuildTunedUdpUnicastChannel() {
+        // When
+        String channel = ChannelConfig.udpUnicast("localhost:40123")
+            .mtu(8192)
+            .termLength(16 * 1024 * 1024)
+            .socketSndbufLength(2 * 1024 * 1024)
+            .socketRcvbufLength(2 * 1024 * 1024)
+            .build();
+        
+        // Then
+        ChannelUri uri = ChannelUri.parse(channel);
+        assertThat(uri.media()).isEqualTo("udp");
+        assertThat(uri.get("endpoint")).isEqualTo("localhost:40123");
+        assertThat(uri.get("mtu")).isEqualTo("8192");
+        assertThat(uri.get("term-length")).isEqualTo("16777216");
+        assertThat(uri.get("so-sndbuf")).isEqualTo("2097152");
+        assertThat(uri.get("so-rcvbuf")).isEqualTo("2097152");
+    }
+    
+    @Test
+    void shouldBuildUdpMulticastChannel() {
+        // When
+        String channel = ChannelConfig.udpMulticast("224.0.1.1:40456", "127.0.0.1").build();
+        
+        // Then
+        ChannelUri uri = ChannelUri.parse(channel);
+        assertThat(uri.get("endpoint")).isEqualTo("224.0.1.1:40456");
+        assertThat(uri.get("interface")).isEqualTo("127.0.0.1");
+    }
+    
+    @Test
+    void shouldPublishAndReceiveOverUdpLoopback() throws InterruptedException {
+        // Given
+        ChannelConfig channel = ChannelConfig.udpUnicast("localhost:40124").mtu(8192);
+        Trade trade = Trade.create(10L, "IBM", 185.30, 40, 'B', "COUNTERPARTY_K");
+        MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+        List<Trade> receivedTrades = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        
+        EmbeddedMediaDriverManager.start();
+        try (AeronSubscriber subscriber = new AeronSubscriber(channel, STREAM_ID);
+             AeronPublisher publisher = new AeronPublisher(channel, STREAM_ID, BUFFER_SIZE)) {
+            int attempts = 0;
+            while (!publisher.isConnected() && attempts++ < 200) {
+                Thread.sleep(10);
+            }
+            assertThat(publisher.isConnected()).withFailMessage("Publisher failed to connect after 2 seconds").isTrue();
+            
+            subscriber.startPolling((buffer, offset, length, header) -> {
+                receivedTrades.add(serializer.deserialize(buffer, offset, length));
+                latch.countDown();
+            });
+            
+            // When
+            publisher.publish(trade, serializer);
+            
+            // Then
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(receivedTrades).containsExactly(trade);
+        } finally {
+            EmbeddedMediaDriverManager.stop();
+        }
+    }
+}
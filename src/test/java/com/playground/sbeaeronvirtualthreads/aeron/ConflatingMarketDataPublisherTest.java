@@ -0,0 +1,177 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for conflating market data under back pressure, using a small term so that a subscriber
+ * which is not polling back pressures the publication quickly
+ */
+class ConflatingMarketDataPublisherTest {
+    private static final String CHANNEL = "aeron:ipc?term-length=64k";
+    private static final int STREAM_ID = 1105;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int FRAGMENT_LIMIT = 100;
+    private static final int SLOT_LENGTH = 128;
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN"};
+    
+    private final MessageSerializer<MarketData> subscriberSerializer = new MarketDataSbeSerializer();
+    private final List<MarketData> received = new ArrayList<>();
+    private final FragmentHandler handler = (buffer, offset, length, header) ->
+        received.add(subscriberSerializer.deserialize(buffer, offset, length));
+    
+    private AeronPublisher publisher;
+    private AeronSubscriber subscriber;
+    
+    @BeforeAll
+    static void startMediaDriver() {
+        EmbeddedMediaDriverManager.start();
+    }
+    
+    @AfterAll
+    static void stopMediaDriver() {
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+        subscriber = new AeronSubscriber(CHANNEL, STREAM_ID);
+        
+        int attempts = 0;
+        while (!publisher.isConnected() && attempts++ < 100) {
+            Thread.sleep(10);
+        }
+        
+        assertThat(publisher.isConnected()).withFailMessage("Publisher failed to connect after 1 second").isTrue();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+    
+    @Test
+    void shouldDeliverLatestQuotePerSymbolAfterBackPressure() {
+        // Given
+        ConflatingMarketDataPublisher conflatingPublisher = new ConflatingMarketDataPublisher(
+            publisher, new MarketDataSbeSerializer(), SYMBOLS.length, SLOT_LENGTH);
+        Map<String, MarketData> latest = new HashMap<>();
+        int updateCount = 20_000;
+        
+        // When - nothing is polling, so the publication fills up and later updates conflate
+        for (int i = 0; i < updateCount; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            MarketData marketData = new MarketData(i, 100.0 + i, 100.01 + i, i, i, symbol);
+            latest.put(symbol, marketData);
+            conflatingPublisher.publish(marketData);
+        }
+        
+        assertThat(conflatingPublisher.getPendingSymbols()).isPositive().isLessThanOrEqualTo(SYMBOLS.length);
+        assertThat(conflatingPublisher.getConflatedUpdates()).isPositive();
+        
+        while (!conflatingPublisher.flush()) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+        }
+        while (subscriber.pollOnce(handler, FRAGMENT_LIMIT) > 0) {
+            // Keep polling
+        }
+        
+        // Then - memory stayed at one slot per symbol and the last quote seen for each symbol is the latest
+        System.out.println("Conflated " + conflatingPublisher.getConflatedUpdates() + " of " + updateCount +
+            " updates, received " + received.size());
+        assertThat(conflatingPublisher.getSymbolCount()).isEqualTo(SYMBOLS.length);
+        assertThat(received.size() + conflatingPublisher.getConflatedUpdates()).isEqualTo(updateCount);
+        
+        Map<String, MarketData> lastReceived = new HashMap<>();
+        for (MarketData marketData : received) {
+            lastReceived.put(marketData.symbol(), marketData);
+        }
+        assertThat(lastReceived).isEqualTo(latest);
+    }
+    
+    @Test
+    void shouldKeepConflatingAfterSubscriberDisconnects() throws InterruptedException {
+        // Given
+        ConflatingMarketDataPublisher conflatingPublisher = new ConflatingMarketDataPublisher(
+            publisher, new MarketDataSbeSerializer(), SYMBOLS.length, SLOT_LENGTH);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            assertThat(conflatingPublisher.publish(new MarketData(i, 100.0, 100.01, 10, 10, SYMBOLS[i]))).isTrue();
+        }
+        
+        // When - the subscriber goes away part way through the stream
+        subscriber.close();
+        subscriber = null;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (publisher.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(publisher.isConnected()).isFalse();
+        
+        int updateCount = 1000;
+        for (int i = 0; i < updateCount; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            assertThat(conflatingPublisher.publish(new MarketData(i, 101.0 + i, 101.01 + i, i, i, symbol))).isFalse();
+        }
+        
+        // Then - updates are held one per symbol rather than thrown or queued
+        assertThat(conflatingPublisher.getPendingSymbols()).isEqualTo(SYMBOLS.length);
+        assertThat(conflatingPublisher.getConflatedUpdates()).isEqualTo(updateCount - SYMBOLS.length);
+        assertThat(conflatingPublisher.getBackPressuredFlushes()).isEqualTo(updateCount);
+    }
+    
+    @Test
+    void shouldSendOpenCoalescedFrameBeforeQuote() {
+        // Given - a quote waiting in the wrapped publisher's coalesced frame
+        publisher.enableCoalescing(1_000_000);
+        ConflatingMarketDataPublisher conflatingPublisher = new ConflatingMarketDataPublisher(
+            publisher, new MarketDataSbeSerializer(), SYMBOLS.length, SLOT_LENGTH);
+        MarketData coalesced = new MarketData(1, 100.0, 100.01, 10, 10, "AAPL");
+        MarketData conflated = new MarketData(2, 101.0, 101.01, 20, 20, "AAPL");
+        publisher.publish(coalesced, new MarketDataSbeSerializer());
+        
+        // When
+        assertThat(conflatingPublisher.publish(conflated)).isTrue();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.size() < 2 && System.currentTimeMillis() < deadline) {
+            subscriber.pollOnce(handler, FRAGMENT_LIMIT);
+        }
+        
+        // Then
+        assertThat(received).containsExactly(coalesced, conflated);
+    }
+    
+    @Test
+    void shouldRejectMoreSymbolsThanSlots() {
+        // Given
+        ConflatingMarketDataPublisher conflatingPublisher = new ConflatingMarketDataPublisher(
+            publisher, new MarketDataSbeSerializer(), 1, SLOT_LENGTH);
+        conflatingPublisher.publish(MarketData.create("AAPL", 150.25, 150.26, 100, 200));
+        
+        // When / Then
+        assertThatThrownBy(() -> conflatingPublisher.publish(MarketData.create("MSFT", 380.10, 380.12, 200, 300)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(conflatingPublisher.getSymbolCount()).isEqualTo(1);
+    }
+}
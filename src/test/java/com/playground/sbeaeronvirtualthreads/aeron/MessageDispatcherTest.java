@@ -0,0 +1,97 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.PerformanceMetrics;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.FixedLengthTradeMessageDecoder;
+import com.playground.sbeaeronvirtualthreads.serialization.FixedLengthTradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.PerformanceMetricsSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeJsonSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for routing SBE messages by templateId
+ */
+class MessageDispatcherTest {
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @Test
+    void shouldRouteEachTemplateToItsHandler() {
+        // Given
+        List<Object> received = new ArrayList<>();
+        MessageDispatcher dispatcher = new MessageDispatcher()
+            .onTrade(received::add)
+            .onMarketData(received::add)
+            .onPerformanceMetrics(received::add);
+        
+        Trade trade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        MarketData marketData = MarketData.create("MSFT", 380.10, 380.12, 200, 300);
+        PerformanceMetrics metrics = new PerformanceMetrics(10, 640, 1500, 900, 4000, "dispatch");
+        
+        // When
+        int length = new MarketDataSbeSerializer().serialize(marketData, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        length = new TradeSbeSerializer().serialize(trade, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        length = new PerformanceMetricsSbeSerializer().serialize(metrics, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        
+        // Then
+        assertThat(received).containsExactly(marketData, trade, metrics);
+        assertThat(dispatcher.getUnknownMessages()).isZero();
+    }
+    
+    @Test
+    void shouldRouteToRawFragmentHandler() {
+        // Given
+        List<Boolean> matches = new ArrayList<>();
+        byte[] symbol = "AAPL".getBytes();
+        MessageDispatcher dispatcher = new MessageDispatcher()
+            .register(FixedLengthTradeMessageDecoder.TEMPLATE_ID, (buffer, offset, length, header) ->
+                matches.add(FixedLengthTradeSbeSerializer.symbolEquals(buffer, offset, symbol)));
+        
+        Trade trade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        int length = new FixedLengthTradeSbeSerializer().serialize(trade, buffer, 32);
+        
+        // When
+        dispatcher.onFragment(buffer, 32, length, null);
+        
+        // Then
+        assertThat(matches).containsExactly(true);
+    }
+    
+    @Test
+    void shouldCountUnroutableMessages() {
+        // Given
+        List<Object> received = new ArrayList<>();
+        MessageDispatcher dispatcher = new MessageDispatcher().onTrade(received::add);
+        
+        Trade trade = Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        MarketData marketData = MarketData.create("MSFT", 380.10, 380.12, 200, 300);
+        
+        // When - no handler, a template beyond the table, a non-SBE payload and a truncated fragment
+        int length = new MarketDataSbeSerializer().serialize(marketData, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        length = new FixedLengthTradeSbeSerializer().serialize(trade, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        length = new TradeJsonSerializer().serialize(trade, buffer, 0);
+        dispatcher.onFragment(buffer, 0, length, null);
+        dispatcher.onFragment(buffer, 0, 4, null);
+        
+        // Then
+        assertThat(received).isEmpty();
+        assertThat(dispatcher.getUnknownMessages()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,157 @@
+package com.playground.sbeaeronvirtualthreads.aeron;
+
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for sequence window duplicate suppression and per-session position tracking
+ */
+class MessageTrackerTest {
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 1501;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int WINDOW_BITS = 128;
+    
+    private final MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @BeforeAll
+    static void startMediaDriver() {
+        EmbeddedMediaDriverManager.start();
+    }
+    
+    @AfterAll
+    static void stopMediaDriver() {
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Test
+    void shouldRejectDuplicatesAndStaleSequencesWithinWindow() {
+        // Given
+        SequenceWindow window = new SequenceWindow(WINDOW_BITS);
+        for (long sequence = 1000; sequence < 1100; sequence++) {
+            window.markSeen(sequence);
+        }
+        
+        // When / Then
+        assertThat(window.markSeen(1050)).isFalse();
+        assertThat(window.markSeen(999)).as("before the first sequence").isFalse();
+        assertThat(window.markSeen(1100)).isTrue();
+        assertThat(window.markSeen(1100 - WINDOW_BITS)).as("older than the window").isFalse();
+        assertThat(window.getDuplicates()).isEqualTo(2);
+        assertThat(window.getStaleSequences()).isEqualTo(1);
+        assertThat(window.getGaps()).isZero();
+    }
+    
+    @Test
+    void shouldCountGapsOnlyOnceWindowMovesPastThem() {
+        // Given - 1003 and 1004 are missing, and 1003 turns up late
+        SequenceWindow window = new SequenceWindow(WINDOW_BITS);
+        for (long sequence : new long[] {1000, 1001, 1002, 1005, 1003}) {
+            window.markSeen(sequence);
+        }
+        assertThat(window.getGaps()).isZero();
+        
+        // When - the window moves past 1004, then jumps far ahead
+        window.markSeen(1004 + WINDOW_BITS);
+        long gapsAfterSlide = window.getGaps();
+        window.markSeen(1_000_000);
+        
+        // Then
+        assertThat(gapsAfterSlide).isEqualTo(1);
+        // Every sequence from 1000 up to the new window's start except the six seen
+        assertThat(window.getGaps()).isEqualTo((1_000_000 - WINDOW_BITS - 1000 + 1) - 6);
+        assertThat(window.getHighestSequence()).isEqualTo(1_000_000);
+    }
+    
+    @Test
+    void shouldTrackPositionsPerSessionAndPassThroughOtherMessages() {
+        // Given
+        List<Long> delivered = new ArrayList<>();
+        MessageTracker tracker = new MessageTracker(
+            (msgBuffer, offset, length, header) -> delivered.add(header.position()),
+            MessageTracker.SBE_TRADE_ID, WINDOW_BITS);
+        int tradeLength = serializer.serialize(Trade.create(1L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), buffer, 0);
+        UnsafeBuffer marketData = new UnsafeBuffer(new byte[BUFFER_SIZE]);
+        int marketDataLength = new MarketDataSbeSerializer()
+            .serialize(MarketData.create("AAPL", 150.0, 150.1, 100, 200), marketData, 0);
+        
+        // When - session 7 rewinds by two frames, session 8 starts, market data has no tradeId
+        tracker.onFragment(buffer, 0, tradeLength, header(7, 0));
+        tracker.onFragment(marketData, 0, marketDataLength, header(7, 64));
+        tracker.onFragment(marketData, 0, marketDataLength, header(7, 128));
+        tracker.onFragment(buffer, 0, tradeLength, header(7, 0));
+        tracker.onFragment(buffer, 0, tradeLength, header(8, 0));
+        
+        // Then
+        assertThat(delivered).hasSize(3);
+        assertThat(tracker.getDuplicates()).isEqualTo(2);
+        assertThat(tracker.getSessions()).isEqualTo(2);
+        assertThat(tracker.getPositionRewinds()).isEqualTo(1);
+        assertThat(tracker.getRewoundBytes()).isEqualTo(128);
+        assertThat(tracker.getPosition(7)).isEqualTo(64);
+    }
+    
+    @Test
+    void shouldSuppressTradesDeliveredAgainOverAeron() throws InterruptedException {
+        // Given
+        List<Long> tradeIds = new ArrayList<>();
+        MessageTracker tracker = new MessageTracker((msgBuffer, offset, length, header) ->
+            tradeIds.add(serializer.deserialize(msgBuffer, offset, length).tradeId()));
+        
+        try (AeronPublisher publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+             AeronSubscriber subscriber = new AeronSubscriber(CHANNEL, STREAM_ID)) {
+            int attempts = 0;
+            while (!publisher.isConnected() && attempts++ < 100) {
+                Thread.sleep(10);
+            }
+            
+            // When - trades 50 to 99 are sent twice, as after a publisher resends from a checkpoint
+            for (long tradeId = 0; tradeId < 100; tradeId++) {
+                publisher.publish(Trade.create(tradeId, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), serializer);
+            }
+            for (long tradeId = 50; tradeId < 150; tradeId++) {
+                publisher.publish(Trade.create(tradeId, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A"), serializer);
+            }
+            
+            long deadline = System.currentTimeMillis() + 5000;
+            while (subscriber.getMessagesReceived() < 200 && System.currentTimeMillis() < deadline) {
+                subscriber.pollOnce(tracker, AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+            }
+        }
+        
+        // Then
+        System.out.println("Delivered " + tracker.getMessagesDelivered() + ", duplicates " + tracker.getDuplicates());
+        assertThat(tradeIds).hasSize(150).doesNotHaveDuplicates();
+        assertThat(tracker.getDuplicates()).isEqualTo(50);
+        assertThat(tracker.getGaps()).isZero();
+        assertThat(tracker.getSessions()).isEqualTo(1);
+    }
+    
+    private static Header header(int sessionId, int termOffset) {
+        UnsafeBuffer headerBuffer = new UnsafeBuffer(new byte[DataHeaderFlyweight.HEADER_LENGTH]);
+        new DataHeaderFlyweight(headerBuffer).sessionId(sessionId).termId(0).termOffset(termOffset).frameLength(64);
+        
+        Header header = new Header(0, 16);
+        header.buffer(headerBuffer);
+        header.offset(0);
+        return header;
+    }
+}
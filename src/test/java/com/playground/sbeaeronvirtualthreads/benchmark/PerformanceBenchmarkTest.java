@@ -2,13 +2,22 @@ package com.playground.sbeaeronvirtualthreads.benchmark;
 
 import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
 import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.aeron.IdleStrategyType;
+import com.playground.sbeaeronvirtualthreads.aeron.SubscriptionAgentPool;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
 import com.playground.sbeaeronvirtualthreads.model.PerformanceMetrics;
 import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.monitoring.ResourceMonitor;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataJsonSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataProtobufSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeJsonSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeProtobufSerializer;
 import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
 import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import com.playground.sbeaeronvirtualthreads.util.SharedAeronClient;
+import io.aeron.Aeron;
 import io.aeron.logbuffer.FragmentHandler;
 import org.junit.jupiter.api.*;
 
@@ -17,6 +26,7 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,6 +39,12 @@ class PerformanceBenchmarkTest {
     private static final int STREAM_ID = 4001;
     private static final int BUFFER_SIZE = 8192;
     private static final int MESSAGE_COUNT = 10000;
+    private static final int PACED_MESSAGE_COUNT = 1000;
+    private static final long PACING_NANOS = 100_000;
+    private static final int CLIENT_STREAM_COUNT = 20;
+    private static final String SMALL_TERM_CHANNEL = "aeron:ipc?term-length=64k";
+    private static final int AGENT_POOL_STREAM_COUNT = 200;
+    private static final int AGENT_POOL_THREADS = 2;
     
     @BeforeAll
     static void startMediaDriver() {
@@ -66,6 +82,25 @@ class PerformanceBenchmarkTest {
         System.out.println("\nNote: SBE is typically fastest, but results vary by data size and system load.");
     }
     
+    @Test
+    void shouldBenchmarkMarketDataSerializationFormats() throws InterruptedException {
+        List<PerformanceMetrics> results = new ArrayList<>();
+        
+        results.add(benchmarkMarketDataSerializer(new MarketDataSbeSerializer()));
+        results.add(benchmarkMarketDataSerializer(new MarketDataProtobufSerializer()));
+        results.add(benchmarkMarketDataSerializer(new MarketDataJsonSerializer()));
+        
+        System.out.println("\n=== Market Data Benchmark Results ===");
+        for (PerformanceMetrics metrics : results) {
+            printMetrics(metrics);
+        }
+        
+        for (PerformanceMetrics metrics : results) {
+            assertThat(metrics.messageCount()).isEqualTo(MESSAGE_COUNT);
+            assertThat(metrics.averageLatencyNanos()).isGreaterThan(0);
+        }
+    }
+    
     @Test
     void shouldBenchmarkVirtualThreadsVsPlatformThreads() throws InterruptedException {
         MessageSerializer<Trade> serializer = new TradeSbeSerializer();
@@ -163,6 +198,124 @@ class PerformanceBenchmarkTest {
             String.format("%.2f", (messagesPerStream * concurrentStreams * 1_000_000_000.0) / durationNanos) + " msgs/sec");
     }
     
+    @Test
+    void shouldCompareSubscriberIdleStrategies() throws InterruptedException {
+        // Messages are paced so the subscriber goes idle between them and latency includes wake-up
+        System.out.println("\n=== Subscriber Idle Strategy Comparison ===");
+        System.out.println(String.format("%-24s %-10s %12s %12s %10s",
+            "Idle Strategy", "Thread", "Avg (μs)", "Max (μs)", "CPU (cores)"));
+        
+        for (IdleStrategyType type : IdleStrategyType.values()) {
+            for (boolean useVirtualThreads : new boolean[] {false, true}) {
+                ResourceMonitor resourceMonitor = new ResourceMonitor();
+                ResourceMonitor.ResourceSnapshot before = resourceMonitor.takeSnapshot();
+                PerformanceMetrics metrics = benchmarkIdleStrategy(type, useVirtualThreads);
+                ResourceMonitor.ResourceSnapshot after = resourceMonitor.takeSnapshot();
+                
+                System.out.println(String.format("%-24s %-10s %12.2f %12d %10.2f",
+                    type,
+                    useVirtualThreads ? "virtual" : "platform",
+                    metrics.getAverageLatencyMicros(),
+                    metrics.maxLatencyNanos() / 1000,
+                    resourceMonitor.getCpuUtilisation(before, after)));
+                
+                assertThat(metrics.messageCount()).isEqualTo(PACED_MESSAGE_COUNT);
+            }
+        }
+    }
+    
+    @Test
+    void shouldCompareDedicatedAndSharedAeronClients() throws InterruptedException {
+        // Given - each dedicated publisher and subscriber connects its own client
+        ClientStartup dedicated = openStreams(null);
+        
+        // When
+        Aeron aeron = SharedAeronClient.acquire();
+        ClientStartup shared;
+        try {
+            shared = openStreams(aeron);
+        } finally {
+            SharedAeronClient.release();
+        }
+        
+        // Then
+        System.out.println("\n=== Dedicated vs Shared Aeron Client ===");
+        System.out.println("Streams (publisher + subscriber each): " + CLIENT_STREAM_COUNT);
+        System.out.println("Dedicated clients - Startup: " + (dedicated.startupNanos() / 1_000_000) +
+            " ms, Threads Added: " + dedicated.threadsAdded());
+        System.out.println("Shared client - Startup: " + (shared.startupNanos() / 1_000_000) +
+            " ms, Threads Added: " + shared.threadsAdded());
+        
+        assertThat(shared.threadsAdded()).isLessThan(dedicated.threadsAdded());
+        assertThat(SharedAeronClient.isConnected()).isFalse();
+    }
+    
+    @Test
+    void shouldHostManySubscriptionsOnAgentPool() throws InterruptedException {
+        // Small terms keep hundreds of IPC publications within the test's shared memory budget
+        int messagesPerStream = 10;
+        ResourceMonitor resourceMonitor = new ResourceMonitor();
+        Aeron aeron = SharedAeronClient.acquire();
+        
+        List<AeronPublisher> publishers = new ArrayList<>();
+        List<AeronSubscriber> subscribers = new ArrayList<>();
+        ResourceMonitor.ResourceSnapshot before = resourceMonitor.takeSnapshot();
+        
+        try (SubscriptionAgentPool pool = new SubscriptionAgentPool(
+            "subscription-pool", AGENT_POOL_THREADS, IdleStrategyType.BACKOFF)) {
+            
+            CountDownLatch latch = new CountDownLatch(AGENT_POOL_STREAM_COUNT * messagesPerStream);
+            
+            long startTime = System.nanoTime();
+            for (int i = 0; i < AGENT_POOL_STREAM_COUNT; i++) {
+                int streamId = STREAM_ID + 200 + i;
+                publishers.add(new AeronPublisher(aeron, SMALL_TERM_CHANNEL, streamId, BUFFER_SIZE));
+                AeronSubscriber subscriber = new AeronSubscriber(aeron, SMALL_TERM_CHANNEL, streamId);
+                subscribers.add(subscriber);
+                
+                // One serializer per agent, as pool threads would race on a shared decoder
+                MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+                pool.add(subscriber.asAgent((buffer, offset, length, header) -> {
+                    serializer.deserialize(buffer, offset, length);
+                    latch.countDown();
+                }));
+            }
+            
+            for (AeronPublisher publisher : publishers) {
+                int attempts = 0;
+                while (!publisher.isConnected() && attempts++ < 100) {
+                    Thread.sleep(10);
+                }
+            }
+            
+            MessageSerializer<Trade> publishSerializer = new TradeSbeSerializer();
+            for (int i = 0; i < messagesPerStream; i++) {
+                for (AeronPublisher publisher : publishers) {
+                    publisher.publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "CP"), publishSerializer);
+                }
+            }
+            
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+            long durationNanos = System.nanoTime() - startTime;
+            ResourceMonitor.ResourceSnapshot after = resourceMonitor.takeSnapshot();
+            int threadsAdded = after.threadCount() - before.threadCount();
+            
+            System.out.println("\n=== Subscriptions Hosted on Agent Pool ===");
+            System.out.println("Streams: " + AGENT_POOL_STREAM_COUNT + ", Pool Threads: " + pool.getThreadCount());
+            System.out.println("Total messages: " + (AGENT_POOL_STREAM_COUNT * messagesPerStream));
+            System.out.println("Duration: " + (durationNanos / 1_000_000) + " ms");
+            System.out.println("Threads Added: " + threadsAdded +
+                " (a polling thread per subscriber would add " + AGENT_POOL_STREAM_COUNT + ")");
+            
+            assertThat(pool.getAgentCount()).isEqualTo(AGENT_POOL_STREAM_COUNT);
+            assertThat(threadsAdded).isLessThan(AGENT_POOL_STREAM_COUNT / 10);
+        } finally {
+            subscribers.forEach(AeronSubscriber::close);
+            publishers.forEach(AeronPublisher::close);
+            SharedAeronClient.release();
+        }
+    }
+    
     @Test
     void shouldMeasureResourceUsageUnderLoad() throws InterruptedException {
         Runtime runtime = Runtime.getRuntime();
@@ -249,6 +402,153 @@ class PerformanceBenchmarkTest {
         }
     }
     
+    private PerformanceMetrics benchmarkIdleStrategy(IdleStrategyType type, boolean useVirtualThreads)
+            throws InterruptedException {
+        TradeSbeSerializer serializer = new TradeSbeSerializer();
+        
+        try (AeronPublisher publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+             AeronSubscriber subscriber = new AeronSubscriber(
+                 CHANNEL, STREAM_ID, type.newIdleStrategy(), AeronSubscriber.DEFAULT_FRAGMENT_LIMIT)) {
+            
+            List<Long> latencies = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(PACED_MESSAGE_COUNT);
+            
+            FragmentHandler handler = (buffer, offset, length, header) -> {
+                long receiveTime = System.nanoTime();
+                Trade trade = serializer.deserialize(buffer, offset, length);
+                latencies.add(receiveTime - trade.timestamp());
+                latch.countDown();
+            };
+            
+            if (useVirtualThreads) {
+                subscriber.startPollingWithVirtualThread(handler);
+            } else {
+                subscriber.startPolling(handler);
+            }
+            
+            Thread.sleep(100); // Wait for subscriber to start
+            
+            long totalBytes = 0;
+            for (int i = 0; i < PACED_MESSAGE_COUNT; i++) {
+                Trade trade = Trade.create(i, "AAPL", 100.0 + i, 10 + i, 'B', "COUNTERPARTY");
+                totalBytes += publisher.publish(trade, serializer);
+                LockSupport.parkNanos(PACING_NANOS);
+            }
+            
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+            
+            long minLatency = latencies.stream().mapToLong(Long::longValue).min().orElse(0);
+            long maxLatency = latencies.stream().mapToLong(Long::longValue).max().orElse(0);
+            long avgLatency = (long) latencies.stream().mapToLong(Long::longValue).average().orElse(0);
+            
+            return new PerformanceMetrics(
+                PACED_MESSAGE_COUNT,
+                totalBytes,
+                avgLatency,
+                minLatency,
+                maxLatency,
+                type + (useVirtualThreads ? " (Virtual Threads)" : " (Platform Threads)")
+            );
+        }
+    }
+    
+    /**
+     * Open a publisher and subscriber per stream, on dedicated clients when aeron is null, and
+     * check each stream delivers a message before closing them all
+     */
+    private ClientStartup openStreams(Aeron aeron) throws InterruptedException {
+        ResourceMonitor resourceMonitor = new ResourceMonitor();
+        ResourceMonitor.ResourceSnapshot before = resourceMonitor.takeSnapshot();
+        
+        List<AeronPublisher> publishers = new ArrayList<>();
+        List<AeronSubscriber> subscribers = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENT_STREAM_COUNT; i++) {
+                int streamId = STREAM_ID + 100 + i;
+                publishers.add(aeron == null ?
+                    new AeronPublisher(CHANNEL, streamId, BUFFER_SIZE) :
+                    new AeronPublisher(aeron, CHANNEL, streamId, BUFFER_SIZE));
+                subscribers.add(aeron == null ?
+                    new AeronSubscriber(CHANNEL, streamId) :
+                    new AeronSubscriber(aeron, CHANNEL, streamId));
+            }
+            
+            for (AeronPublisher publisher : publishers) {
+                int attempts = 0;
+                while (!publisher.isConnected() && attempts++ < 100) {
+                    Thread.sleep(10);
+                }
+            }
+            
+            ResourceMonitor.ResourceSnapshot after = resourceMonitor.takeSnapshot();
+            resourceMonitor.printDifference(before, after, aeron == null ? "Dedicated Clients" : "Shared Client");
+            
+            // Steady state - every stream still works with the client it was given
+            MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+            for (int i = 0; i < CLIENT_STREAM_COUNT; i++) {
+                publishers.get(i).publish(Trade.create(i, "AAPL", 150.25, 100, 'B', "CP"), serializer);
+                
+                int received = 0;
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (received == 0 && System.nanoTime() < deadline) {
+                    received = subscribers.get(i).pollOnce((buffer, offset, length, header) -> { }, 1);
+                }
+                assertThat(received).isEqualTo(1);
+            }
+            
+            return new ClientStartup(after.timestamp() - before.timestamp(), after.threadCount() - before.threadCount());
+        } finally {
+            subscribers.forEach(AeronSubscriber::close);
+            publishers.forEach(AeronPublisher::close);
+        }
+    }
+    
+    private record ClientStartup(long startupNanos, int threadsAdded) {}
+    
+    private PerformanceMetrics benchmarkMarketDataSerializer(MessageSerializer<MarketData> serializer) 
+            throws InterruptedException {
+        try (AeronPublisher publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+             AeronSubscriber subscriber = new AeronSubscriber(CHANNEL, STREAM_ID)) {
+            
+            List<Long> latencies = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(MESSAGE_COUNT);
+            
+            FragmentHandler handler = (buffer, offset, length, header) -> {
+                long receiveTime = System.nanoTime();
+                MarketData marketData = serializer.deserialize(buffer, offset, length);
+                latencies.add(receiveTime - marketData.timestamp());
+                latch.countDown();
+            };
+            
+            subscriber.startPolling(handler);
+            Thread.sleep(100); // Wait for subscriber to start
+            
+            // Send quotes
+            long totalBytes = 0;
+            for (int i = 0; i < MESSAGE_COUNT; i++) {
+                MarketData marketData = MarketData.create(
+                    "SYMBOL" + (i % 50), 100.0 + (i % 100), 100.02 + (i % 100), 100 + i, 200 + i);
+                totalBytes += publisher.publish(marketData, serializer);
+            }
+            
+            // Wait for all quotes
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+            
+            long minLatency = latencies.stream().mapToLong(Long::longValue).min().orElse(0);
+            long maxLatency = latencies.stream().mapToLong(Long::longValue).max().orElse(0);
+            long avgLatency = (long) latencies.stream().mapToLong(Long::longValue).average().orElse(0);
+            
+            return new PerformanceMetrics(
+                MESSAGE_COUNT,
+                totalBytes,
+                avgLatency,
+                minLatency,
+                maxLatency,
+                "MarketData " + serializer.getFormatName()
+            );
+        }
+    }
+    
     private void printMetrics(PerformanceMetrics metrics) {
         System.out.println("\nTest: " + metrics.testName());
         System.out.println("Messages: " + metrics.messageCount());
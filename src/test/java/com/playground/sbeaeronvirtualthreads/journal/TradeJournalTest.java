@@ -0,0 +1,176 @@
+package com.playground.sbeaeronvirtualthreads.journal;
+
+import com.playground.sbeaeronvirtualthreads.aeron.AeronPublisher;
+import com.playground.sbeaeronvirtualthreads.aeron.AeronSubscriber;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.serialization.MarketDataSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.MessageSerializer;
+import com.playground.sbeaeronvirtualthreads.serialization.TradeSbeSerializer;
+import com.playground.sbeaeronvirtualthreads.util.EmbeddedMediaDriverManager;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the memory-mapped trade journal, using small segments so records roll across files
+ */
+class TradeJournalTest {
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 1401;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int SEGMENT_LENGTH = 4096;
+    private static final int INDEX_INTERVAL = 16;
+    private static final int TRADE_COUNT = 500;
+    
+    private final MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @TempDir
+    File directory;
+    
+    @BeforeAll
+    static void startMediaDriver() {
+        EmbeddedMediaDriverManager.start();
+    }
+    
+    @AfterAll
+    static void stopMediaDriver() {
+        EmbeddedMediaDriverManager.stop();
+    }
+    
+    @Test
+    void shouldRecoverRecordsAndIndexAfterReopen() {
+        // Given
+        List<Trade> appended = new ArrayList<>();
+        try (TradeJournal journal = new TradeJournal(directory, SEGMENT_LENGTH, INDEX_INTERVAL)) {
+            for (int i = 0; i < TRADE_COUNT; i++) {
+                appended.add(append(journal, trade(i)));
+            }
+        }
+        
+        // When
+        try (TradeJournal journal = new TradeJournal(directory, SEGMENT_LENGTH, INDEX_INTERVAL)) {
+            List<Trade> replayed = replayAll(journal, 0);
+            long nextPosition = journal.position();
+            long appendedPosition = journal.append(buffer, 0, serializer.serialize(trade(TRADE_COUNT), buffer, 0));
+            
+            // Then
+            System.out.println("Recovered " + journal.getRecordCount() + " records from " +
+                journal.getSegmentCount() + " segments with " + journal.getIndexSize() + " index entries");
+            assertThat(replayed).containsExactlyElementsOf(appended);
+            assertThat(journal.getSegmentCount()).isGreaterThan(1);
+            assertThat(journal.getIndexSize()).isEqualTo((TRADE_COUNT + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+            assertThat(appendedPosition).isGreaterThanOrEqualTo(nextPosition);
+            assertThat(journal.getRecordCount()).isEqualTo(TRADE_COUNT + 1);
+        }
+    }
+    
+    @Test
+    void shouldSeekByTimestampAndTradeId() {
+        try (TradeJournal journal = new TradeJournal(directory, SEGMENT_LENGTH, INDEX_INTERVAL)) {
+            // Given
+            for (int i = 0; i < TRADE_COUNT; i++) {
+                append(journal, trade(i));
+            }
+            
+            // When
+            long byTimestamp = journal.seekTimestamp(timestampOf(250));
+            long byTradeId = journal.seekTradeId(401);
+            long pastEnd = journal.seekTradeId(TRADE_COUNT);
+            
+            // Then
+            assertThat(replayAll(journal, byTimestamp)).hasSize(TRADE_COUNT - 250)
+                .first().extracting(Trade::tradeId).isEqualTo(250L);
+            assertThat(replayAll(journal, byTradeId)).hasSize(TRADE_COUNT - 401)
+                .first().extracting(Trade::tradeId).isEqualTo(401L);
+            assertThat(pastEnd).isEqualTo(journal.position());
+            assertThat(journal.seekTimestamp(0)).isZero();
+        }
+    }
+    
+    @Test
+    void shouldRejectFramesThatAreNotTrades() {
+        try (TradeJournal journal = new TradeJournal(directory, SEGMENT_LENGTH, INDEX_INTERVAL)) {
+            // Given
+            MarketData marketData = MarketData.create("AAPL", 150.0, 150.1, 100, 200);
+            int length = new MarketDataSbeSerializer().serialize(marketData, buffer, 0);
+            
+            // When / Then
+            assertThatThrownBy(() -> journal.append(buffer, 0, length)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(journal.getRecordCount()).isZero();
+        }
+    }
+    
+    @Test
+    void shouldJournalTradesAsReceivedAndReplayThemIntoPublisher() throws InterruptedException {
+        try (TradeJournal journal = new TradeJournal(directory, SEGMENT_LENGTH, INDEX_INTERVAL);
+             AeronPublisher publisher = new AeronPublisher(CHANNEL, STREAM_ID, BUFFER_SIZE);
+             AeronSubscriber subscriber = new AeronSubscriber(CHANNEL, STREAM_ID)) {
+            int attempts = 0;
+            while (!publisher.isConnected() && attempts++ < 100) {
+                Thread.sleep(10);
+            }
+            
+            // Given - trades journalled by the subscriber as they arrive
+            List<Trade> published = new ArrayList<>();
+            for (int i = 0; i < TRADE_COUNT; i++) {
+                Trade trade = trade(i);
+                publisher.publish(trade, serializer);
+                published.add(trade);
+            }
+            long journalDeadline = System.currentTimeMillis() + 5000;
+            while (journal.getRecordCount() < TRADE_COUNT && System.currentTimeMillis() < journalDeadline) {
+                subscriber.pollOnce(journal, AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+            }
+            assertThat(journal.getRecordCount()).isEqualTo(TRADE_COUNT);
+            
+            // When - the journal is replayed into the live stream
+            long replayedFrames = journal.replay(0, publisher);
+            List<Trade> received = new ArrayList<>();
+            FragmentHandler handler = (msgBuffer, offset, length, header) ->
+                received.add(serializer.deserialize(msgBuffer, offset, length));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (received.size() < TRADE_COUNT && System.currentTimeMillis() < deadline) {
+                subscriber.pollOnce(handler, AeronSubscriber.DEFAULT_FRAGMENT_LIMIT);
+            }
+            
+            // Then
+            assertThat(replayedFrames).isEqualTo(TRADE_COUNT);
+            assertThat(replayAll(journal, 0)).containsExactlyElementsOf(published);
+            assertThat(received).containsExactlyElementsOf(published);
+        }
+    }
+    
+    private Trade append(TradeJournal journal, Trade trade) {
+        int length = serializer.serialize(trade, buffer, 0);
+        journal.append(buffer, 0, length);
+        return trade;
+    }
+    
+    private List<Trade> replayAll(TradeJournal journal, long position) {
+        List<Trade> replayed = new ArrayList<>();
+        journal.replay(position, (frameBuffer, offset, length, framePosition) ->
+            replayed.add(serializer.deserialize(frameBuffer, offset, length)));
+        return replayed;
+    }
+    
+    private static Trade trade(int tradeId) {
+        return new Trade(tradeId, timestampOf(tradeId), 100.0 + tradeId, tradeId, 'B', "AAPL", "COUNTERPARTY_A");
+    }
+    
+    private static long timestampOf(int tradeId) {
+        return 1_000_000L + tradeId * 10L;
+    }
+}
@@ -0,0 +1,90 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the fixed-length symbol SBE layout
+ */
+class FixedLengthTradeSbeSerializerTest {
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final FixedLengthTradeSbeSerializer serializer = new FixedLengthTradeSbeSerializer();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @Test
+    void shouldSerializeAndDeserializeTrade() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // When
+        int length = serializer.serialize(trade, buffer, 0);
+        Trade decoded = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        int varDataLength = new TradeSbeSerializer().serialize(trade, buffer, 1024);
+        System.out.println("Trade SBE size: var-data=" + varDataLength + " bytes, fixed=" + length + " bytes");
+        assertThat(length).isEqualTo(FixedLengthTradeSbeSerializer.ENCODED_LENGTH);
+        assertThat(length).isEqualTo(serializer.encodedLength(trade));
+        assertThat(decoded).isEqualTo(trade);
+    }
+    
+    @Test
+    void shouldRoundTripValuesFillingTheWholeField() {
+        // Given
+        Trade trade = Trade.create(
+            1L,
+            "S".repeat(FixedLengthTradeSbeSerializer.MAX_SYMBOL_LENGTH),
+            1.5,
+            1,
+            'S',
+            "C".repeat(FixedLengthTradeSbeSerializer.MAX_COUNTERPARTY_LENGTH));
+        Trade previous = Trade.create(2L, "LONGER_SYMBOL", 2.5, 2, 'B', "LONGER_COUNTERPARTY_NAME");
+        
+        // When - the padding of a shorter value must not leave bytes of a previous one behind
+        serializer.serialize(previous, buffer, 0);
+        int length = serializer.serialize(trade, buffer, 0);
+        Trade shorter = Trade.create(3L, "IBM", 3.5, 3, 'B', "");
+        serializer.serialize(shorter, buffer, length);
+        
+        // Then
+        assertThat(serializer.deserialize(buffer, 0, length)).isEqualTo(trade);
+        assertThat(serializer.deserialize(buffer, length, length)).isEqualTo(shorter);
+    }
+    
+    @Test
+    void shouldPeekSymbolWithoutDecoding() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        serializer.serialize(trade, buffer, 64);
+        
+        // When / Then
+        assertThat(FixedLengthTradeSbeSerializer.symbolEquals(buffer, 64, ascii("AAPL"))).isTrue();
+        assertThat(FixedLengthTradeSbeSerializer.symbolEquals(buffer, 64, ascii("AAP"))).isFalse();
+        assertThat(FixedLengthTradeSbeSerializer.symbolEquals(buffer, 64, ascii("AAPLX"))).isFalse();
+        assertThat(FixedLengthTradeSbeSerializer.symbolEquals(buffer, 64, ascii("MSFT"))).isFalse();
+        assertThat(buffer.getStringWithoutLengthAscii(FixedLengthTradeSbeSerializer.symbolOffset(64), 4))
+            .isEqualTo("AAPL");
+    }
+    
+    @Test
+    void shouldRejectSymbolLongerThanField() {
+        // Given
+        Trade trade = Trade.create(1L, "S".repeat(FixedLengthTradeSbeSerializer.MAX_SYMBOL_LENGTH + 1), 1.5, 1, 'B', "");
+        
+        // When / Then
+        assertThatThrownBy(() -> serializer.serialize(trade, buffer, 0)).isInstanceOf(RuntimeException.class);
+    }
+    
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,109 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Decimal64;
+import com.playground.sbeaeronvirtualthreads.model.FixedPointMarketData;
+import com.playground.sbeaeronvirtualthreads.model.FixedPointTrade;
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import com.playground.sbeaeronvirtualthreads.sbe.MessageHeaderDecoder;
+import com.playground.sbeaeronvirtualthreads.sbe.TradeMessageDecoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the decimal64 price layout and its SBE serializers
+ */
+class FixedPointSbeSerializerTest {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int PRICE_EXPONENT = -4;
+    
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, 150.25, 150.27, 0.0001, 99999.9999, -12.5})
+    void shouldConvertDoublePricesExactlyAtExponent(double price) {
+        // When
+        Decimal64 decimal = Decimal64.fromDouble(price, PRICE_EXPONENT);
+        
+        // Then
+        assertThat(decimal.exponent()).isEqualTo(PRICE_EXPONENT);
+        assertThat(decimal.toDouble()).isEqualTo(price);
+    }
+    
+    @Test
+    void shouldCompareAcrossExponents() {
+        // Given
+        Decimal64 a = new Decimal64(150, -2);
+        Decimal64 b = new Decimal64(15, -1);
+        Decimal64 c = new Decimal64(15026, -4);
+        
+        // Then
+        assertThat(a.compareTo(b)).isZero();
+        assertThat(a).isNotEqualTo(b);
+        assertThat(c.compareTo(new Decimal64(15025, -4))).isPositive();
+        assertThat(c.compareTo(a)).isPositive();
+        assertThat(c.toString()).isEqualTo("1.5026");
+        assertThatThrownBy(() -> new Decimal64(1, 19)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void shouldSerializeAndDeserializeFixedPointTrade() {
+        // Given
+        FixedPointTradeSbeSerializer serializer = new FixedPointTradeSbeSerializer();
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        FixedPointTrade fixedPointTrade = FixedPointTrade.from(trade, PRICE_EXPONENT);
+        
+        // When
+        int length = serializer.serialize(fixedPointTrade, buffer, 0);
+        FixedPointTrade decoded = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        int doubleLength = new TradeSbeSerializer().encodedLength(trade);
+        System.out.println("Trade SBE size: double=" + doubleLength + " bytes, decimal64=" + length + " bytes");
+        assertThat(length).isEqualTo(serializer.encodedLength(fixedPointTrade));
+        assertThat(decoded).isEqualTo(fixedPointTrade);
+        assertThat(decoded.price().mantissa()).isEqualTo(1_502_500L);
+        assertThat(decoded.toTrade()).isEqualTo(trade);
+    }
+    
+    @Test
+    void shouldSerializeAndDeserializeFixedPointMarketData() {
+        // Given
+        FixedPointMarketDataSbeSerializer serializer = new FixedPointMarketDataSbeSerializer();
+        MarketData marketData = MarketData.create("AAPL", 150.25, 150.27, 500, 300);
+        FixedPointMarketData fixedPointMarketData = FixedPointMarketData.from(marketData, PRICE_EXPONENT);
+        
+        // When
+        int length = serializer.serialize(fixedPointMarketData, buffer, 0);
+        FixedPointMarketData decoded = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        assertThat(length).isEqualTo(serializer.encodedLength(fixedPointMarketData));
+        assertThat(decoded).isEqualTo(fixedPointMarketData);
+        assertThat(decoded.askPrice().mantissa() - decoded.bidPrice().mantissa()).isEqualTo(200L);
+        assertThat(decoded.toMarketData()).isEqualTo(marketData);
+    }
+    
+    @Test
+    void shouldStampSchemaVersionOnExistingMessages() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        
+        // When
+        new TradeSbeSerializer().serialize(trade, buffer, 0);
+        MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(buffer, 0);
+        
+        // Then - the double layout is unchanged apart from the version in the header
+        assertThat(header.templateId()).isEqualTo(TradeMessageDecoder.TEMPLATE_ID);
+        assertThat(header.version()).isEqualTo(TradeMessageDecoder.SCHEMA_VERSION);
+        assertThat(header.blockLength()).isEqualTo(TradeMessageDecoder.BLOCK_LENGTH);
+    }
+}
@@ -1,13 +1,16 @@
 package com.playground.sbeaeronvirtualthreads.serialization;
 
+import com.playground.sbeaeronvirtualthreads.model.MarketData;
 import com.playground.sbeaeronvirtualthreads.model.Trade;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,6 +42,134 @@ class SerializationComparisonTest {
         assertThat(deserialized.counterparty()).isEqualTo(trade.counterparty());
     }
     
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("marketDataSerializerProvider")
+    void shouldSerializeAndDeserializeMarketData(String name, MessageSerializer<MarketData> serializer) {
+        // Given
+        MarketData marketData = MarketData.create("AAPL", 150.25, 150.27, 500, 300);
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        
+        // When
+        int length = serializer.serialize(marketData, buffer, 0);
+        MarketData deserialized = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        assertThat(deserialized).isEqualTo(marketData);
+        System.out.println(name + " market data size: " + length + " bytes");
+    }
+    
+    @Test
+    void shouldReportSbeEncodedLengthBeforeSerializing() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_Å");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        MessageSerializer<Trade> serializer = new TradeSbeSerializer();
+        
+        // When
+        int expectedLength = serializer.encodedLength(trade);
+        int length = serializer.serialize(trade, buffer, 0);
+        
+        // Then
+        assertThat(expectedLength).isEqualTo(length);
+        assertThat(new TradeJsonSerializer().encodedLength(trade)).isEqualTo(-1);
+        
+        MarketData marketData = MarketData.create("AAPL", 150.25, 150.27, 500, 300);
+        MessageSerializer<MarketData> marketDataSerializer = new MarketDataSbeSerializer();
+        assertThat(marketDataSerializer.encodedLength(marketData))
+            .isEqualTo(marketDataSerializer.serialize(marketData, buffer, 0));
+    }
+    
+    @Test
+    void shouldWriteSameProtobufBytesWithoutBuilder() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        UnsafeBuffer builderBuffer = new UnsafeBuffer(new byte[BUFFER_SIZE]);
+        UnsafeBuffer directBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        MessageSerializer<Trade> directSerializer = new TradeProtobufDirectSerializer();
+        
+        // When - write at an offset to check the buffer view is positioned correctly
+        int builderLength = new TradeProtobufSerializer().serialize(trade, builderBuffer, 0);
+        int directLength = directSerializer.serialize(trade, directBuffer, 16);
+        
+        // Then
+        byte[] builderBytes = new byte[builderLength];
+        byte[] directBytes = new byte[directLength];
+        builderBuffer.getBytes(0, builderBytes);
+        directBuffer.getBytes(16, directBytes);
+        
+        assertThat(directBytes).isEqualTo(builderBytes);
+        assertThat(directSerializer.encodedLength(trade)).isEqualTo(directLength);
+        assertThat(directSerializer.deserialize(directBuffer, 16, directLength)).isEqualTo(trade);
+        assertThat(new TradeProtobufSerializer().deserialize(directBuffer, 16, directLength)).isEqualTo(trade);
+    }
+    
+    @Test
+    void shouldReadAndWriteJsonInterchangeablyWithJackson() {
+        // Given - characters that need escaping and a non-ASCII counterparty
+        Trade trade = Trade.create(-42L, "BRK\"B", -0.000125, 7, 'S', "CP\\Zürich\n");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        MessageSerializer<Trade> jackson = new TradeJsonSerializer();
+        MessageSerializer<Trade> direct = new TradeJsonDirectSerializer();
+        
+        // When / Then
+        int directLength = direct.serialize(trade, buffer, 0);
+        assertThat(jackson.deserialize(buffer, 0, directLength)).isEqualTo(trade);
+        
+        int jacksonLength = jackson.serialize(trade, buffer, 0);
+        assertThat(direct.deserialize(buffer, 0, jacksonLength)).isEqualTo(trade);
+    }
+    
+    @Test
+    void shouldSkipUnknownJsonFieldsAndWhitespace() {
+        // Given
+        String json = "{ \"extra\": {\"nested\": [1, \"}\"]}, \"tradeId\" : 9, \"price\": 1.5e2, " +
+            "\"side\": \"B\", \"flag\": true, \"symbol\": \"AAPL\", \"quantity\": 3 }";
+        UnsafeBuffer buffer = new UnsafeBuffer(json.getBytes(StandardCharsets.UTF_8));
+        
+        // When
+        Trade trade = new TradeJsonDirectSerializer().deserialize(buffer, 0, buffer.capacity());
+        
+        // Then
+        assertThat(trade.tradeId()).isEqualTo(9L);
+        assertThat(trade.price()).isEqualTo(150.0);
+        assertThat(trade.side()).isEqualTo('B');
+        assertThat(trade.symbol()).isEqualTo("AAPL");
+        assertThat(trade.quantity()).isEqualTo(3);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(chars = {'B', '"', '\\', '\n', '\u0001', 'é'})
+    void shouldReadJsonSideInPlace(char side) {
+        // Given
+        Trade trade = new Trade(1L, 2L, 150.25, 3, side, "AAPL", "CP");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        MessageSerializer<Trade> direct = new TradeJsonDirectSerializer();
+        
+        // When
+        int directLength = direct.serialize(trade, buffer, 0);
+        
+        // Then
+        assertThat(direct.deserialize(buffer, 0, directLength).side()).isEqualTo(side);
+        int jacksonLength = new TradeJsonSerializer().serialize(trade, buffer, 0);
+        assertThat(direct.deserialize(buffer, 0, jacksonLength).side()).isEqualTo(side);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, 1.0, 150.25, 99.99, 0.1, 1e-9, 123456789.125, 0.30000000000000004, -2800.5, 1e21})
+    void shouldRoundTripJsonPricesExactly(double price) {
+        // Given
+        Trade trade = new Trade(1L, 2L, price, 3, 'B', "AAPL", "CP");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        MessageSerializer<Trade> direct = new TradeJsonDirectSerializer();
+        
+        // When
+        int length = direct.serialize(trade, buffer, 0);
+        
+        // Then
+        assertThat(direct.deserialize(buffer, 0, length).price()).isEqualTo(price);
+        assertThat(new TradeJsonSerializer().deserialize(buffer, 0, length).price()).isEqualTo(price);
+    }
+    
     @Test
     void shouldCompareSizesBetweenFormats() {
         // Given
@@ -124,7 +255,17 @@ class SerializationComparisonTest {
         return Stream.of(
             Arguments.of("SBE", new TradeSbeSerializer()),
             Arguments.of("Protobuf", new TradeProtobufSerializer()),
-            Arguments.of("JSON", new TradeJsonSerializer())
+            Arguments.of("Protobuf-Direct", new TradeProtobufDirectSerializer()),
+            Arguments.of("JSON", new TradeJsonSerializer()),
+            Arguments.of("JSON-Direct", new TradeJsonDirectSerializer())
+        );
+    }
+    
+    static Stream<Arguments> marketDataSerializerProvider() {
+        return Stream.of(
+            Arguments.of("SBE", new MarketDataSbeSerializer()),
+            Arguments.of("Protobuf", new MarketDataProtobufSerializer()),
+            Arguments.of("JSON", new MarketDataJsonSerializer())
         );
     }
 }
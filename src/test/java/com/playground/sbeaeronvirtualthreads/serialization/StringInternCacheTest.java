@@ -0,0 +1,139 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the bounded string interning cache and the decoders that use it
+ */
+class StringInternCacheTest {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 100_000;
+    
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @Test
+    void shouldReturnCanonicalInstanceForEqualBytes() {
+        // Given
+        StringInternCache cache = new StringInternCache(64);
+        int length = buffer.putStringWithoutLengthUtf8(0, "AAPL");
+        buffer.putStringWithoutLengthUtf8(100, "AAPL");
+        buffer.putStringWithoutLengthUtf8(200, "MSFT");
+        
+        // When
+        String first = cache.intern(buffer, 0, length);
+        String second = cache.intern(buffer, 100, length);
+        String other = cache.intern(buffer, 200, length);
+        
+        // Then
+        assertThat(first).isEqualTo("AAPL");
+        assertThat(second).isSameAs(first);
+        assertThat(other).isEqualTo("MSFT");
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+    
+    @Test
+    void shouldDecodeNonAsciiAndEmptyValues() {
+        // Given
+        StringInternCache cache = new StringInternCache(64);
+        int length = buffer.putStringWithoutLengthUtf8(0, "Société Générale");
+        
+        // When / Then
+        assertThat(cache.intern(buffer, 0, length)).isEqualTo("Société Générale");
+        assertThat(cache.intern(buffer, 0, 0)).isEmpty();
+        assertThat(cache.intern(buffer, 0, 0)).isSameAs(cache.intern(buffer, 0, 0));
+    }
+    
+    @Test
+    void shouldStayBoundedAndKeepHotValuesWhileOthersChurn() {
+        // Given
+        StringInternCache cache = new StringInternCache(256);
+        int hotLength = buffer.putStringWithoutLengthUtf8(0, "AAPL");
+        String hot = cache.intern(buffer, 0, hotLength);
+        
+        // When - every churning counterparty is seen once, the hot symbol between each of them
+        for (int i = 0; i < 10_000; i++) {
+            int length = buffer.putStringWithoutLengthUtf8(100, "CPTY_" + i);
+            assertThat(cache.intern(buffer, 100, length)).isEqualTo("CPTY_" + i);
+            assertThat(cache.intern(buffer, 0, hotLength)).isSameAs(hot);
+        }
+        
+        // Then
+        System.out.println("Intern cache: size=" + cache.size() + ", hits=" + cache.hits() +
+            ", misses=" + cache.misses() + ", evictions=" + cache.evictions());
+        assertThat(cache.size()).isLessThanOrEqualTo(cache.capacity());
+        assertThat(cache.capacity()).isEqualTo(256);
+        assertThat(cache.evictions()).isPositive();
+        assertThat(cache.misses()).isEqualTo(10_001);
+        assertThat(cache.hits()).isEqualTo(10_000);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("internedSerializerProvider")
+    void shouldDecodeTradesToInternedStrings(MessageSerializer<Trade> serializer) {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        int length = serializer.serialize(trade, buffer, 0);
+        
+        // When
+        Trade first = serializer.deserialize(buffer, 0, length);
+        Trade second = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        assertThat(first).isEqualTo(trade);
+        assertThat(second).isEqualTo(trade);
+        assertThat(second.symbol()).isSameAs(first.symbol());
+        assertThat(second.counterparty()).isSameAs(first.counterparty());
+    }
+    
+    @Test
+    void shouldNotAllocateOnCacheHits() {
+        // Given
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        
+        StringInternCache cache = new StringInternCache(64);
+        int length = buffer.putStringWithoutLengthUtf8(0, "COUNTERPARTY_A");
+        
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            checksum += cache.intern(buffer, 0, length).length();
+        }
+        
+        // When
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += cache.intern(buffer, 0, length).length();
+        }
+        long allocatedBytes = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        
+        // Then
+        System.out.println("Intern cache allocated " + allocatedBytes + " bytes over " + ITERATIONS + " lookups");
+        assertThat(allocatedBytes / ITERATIONS).isZero();
+        assertThat(checksum).isNotZero();
+    }
+    
+    static Stream<MessageSerializer<Trade>> internedSerializerProvider() {
+        return Stream.of(
+            new TradeSbeSerializer(new StringInternCache(64), new StringInternCache(64)),
+            new TradeProtobufDirectSerializer(new StringInternCache(64), new StringInternCache(64)),
+            new TradeJsonDirectSerializer(new StringInternCache(64), new StringInternCache(64))
+        );
+    }
+}
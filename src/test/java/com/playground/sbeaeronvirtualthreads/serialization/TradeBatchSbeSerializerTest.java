@@ -0,0 +1,118 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for packing trades into SBE batch messages
+ */
+class TradeBatchSbeSerializerTest {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PAYLOAD_LENGTH = 1376;
+    
+    private final TradeBatchSbeSerializer serializer = new TradeBatchSbeSerializer();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 8, 32, 128})
+    void shouldRoundTripBatch(int batchSize) {
+        // Given
+        List<Trade> trades = createTrades(batchSize);
+        
+        // When
+        int length = serializer.serialize(trades, buffer, 0);
+        List<Trade> decoded = serializer.deserialize(buffer, 0, length);
+        
+        // Then
+        System.out.println("Batch of " + batchSize + " trades encoded in " + length + " bytes");
+        assertThat(length).isEqualTo(serializer.encodedLength(trades));
+        assertThat(decoded).containsExactlyElementsOf(trades);
+    }
+    
+    @Test
+    void shouldDecodeRangeThroughCallback() {
+        // Given
+        List<Trade> trades = createTrades(20);
+        int length = serializer.serializeBatch(trades, 5, 10, buffer, 16);
+        
+        // When
+        List<Trade> decoded = new ArrayList<>();
+        int count = serializer.decodeBatch(buffer, 16, length, decoded::add);
+        
+        // Then
+        assertThat(length).isEqualTo(serializer.encodedLength(trades, 5, 10));
+        assertThat(count).isEqualTo(10);
+        assertThat(decoded).containsExactlyElementsOf(trades.subList(5, 15));
+    }
+    
+    @Test
+    void shouldSplitTradesIntoBatchesThatFitTheFrame() {
+        // Given
+        List<Trade> trades = createTrades(1000);
+        
+        // When
+        List<Trade> decoded = new ArrayList<>();
+        int frames = 0;
+        int fromIndex = 0;
+        while (fromIndex < trades.size()) {
+            int count = serializer.batchSize(trades, fromIndex, Integer.MAX_VALUE, MAX_PAYLOAD_LENGTH);
+            int length = serializer.serializeBatch(trades, fromIndex, count, buffer, 0);
+            
+            assertThat(length).isLessThanOrEqualTo(MAX_PAYLOAD_LENGTH);
+            if (fromIndex + count < trades.size()) {
+                assertThat(serializer.encodedLength(trades, fromIndex, count + 1)).isGreaterThan(MAX_PAYLOAD_LENGTH);
+            }
+            
+            serializer.decodeBatch(buffer, 0, length, decoded::add);
+            fromIndex += count;
+            frames++;
+        }
+        
+        // Then
+        System.out.println("1000 trades packed into " + frames + " frames of at most " + MAX_PAYLOAD_LENGTH + " bytes");
+        assertThat(frames).isLessThan(trades.size() / 10);
+        assertThat(decoded).containsExactlyElementsOf(trades);
+    }
+    
+    @Test
+    void shouldLimitBatchSizeToMaxCount() {
+        // Given
+        List<Trade> trades = createTrades(100);
+        
+        // When / Then
+        assertThat(serializer.batchSize(trades, 0, 8, BUFFER_SIZE)).isEqualTo(8);
+        assertThat(serializer.batchSize(trades, 95, 8, BUFFER_SIZE)).isEqualTo(5);
+        assertThat(serializer.batchSize(trades, 100, 8, BUFFER_SIZE)).isZero();
+    }
+    
+    @Test
+    void shouldReturnSingleTradeWhenItAloneExceedsFrame() {
+        // Given
+        List<Trade> trades = List.of(Trade.create(1L, "AAPL", 150.25, 100, 'B', "X".repeat(2000)));
+        
+        // When
+        int count = serializer.batchSize(trades, 0, Integer.MAX_VALUE, MAX_PAYLOAD_LENGTH);
+        
+        // Then - the caller publishes it fragmented rather than looping forever
+        assertThat(count).isEqualTo(1);
+        assertThat(serializer.encodedLength(trades, 0, 1)).isGreaterThan(MAX_PAYLOAD_LENGTH);
+    }
+    
+    private static List<Trade> createTrades(int count) {
+        List<Trade> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trades.add(Trade.create(i, "SYM" + (i % 10), 100.0 + i, 100 + i, i % 2 == 0 ? 'B' : 'S', "COUNTERPARTY_" + i));
+        }
+        return trades;
+    }
+}
@@ -0,0 +1,97 @@
+package com.playground.sbeaeronvirtualthreads.serialization;
+
+import com.playground.sbeaeronvirtualthreads.model.Trade;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the allocation-free SBE trade view
+ */
+class TradeViewTest {
+    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 100_000;
+    
+    @Test
+    void shouldReadFieldsInPlace() {
+        // Given
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        int length = new TradeSbeSerializer().serialize(trade, buffer, 0);
+        
+        // When
+        TradeView view = new TradeView().wrap(buffer, 0, length);
+        
+        // Then - var-data fields can be read in any order
+        assertThat(view.counterparty().toString()).isEqualTo(trade.counterparty());
+        assertThat(view.symbol().toString()).isEqualTo(trade.symbol());
+        assertThat(view.symbolLength()).isEqualTo(4);
+        assertThat(view.tradeId()).isEqualTo(trade.tradeId());
+        assertThat(view.timestamp()).isEqualTo(trade.timestamp());
+        assertThat(view.price()).isEqualTo(trade.price());
+        assertThat(view.quantity()).isEqualTo(trade.quantity());
+        assertThat(view.side()).isEqualTo(trade.side());
+        assertThat(view.toTrade()).isEqualTo(trade);
+        
+        UnsafeBuffer symbol = new UnsafeBuffer(new byte[0]);
+        view.wrapSymbol(symbol);
+        assertThat(symbol.getStringWithoutLengthAscii(0, symbol.capacity())).isEqualTo("AAPL");
+    }
+    
+    @Test
+    void shouldNotAllocatePerMessageInSteadyState() {
+        // Given
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        
+        Trade trade = Trade.create(123L, "AAPL", 150.25, 100, 'B', "COUNTERPARTY_A");
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        int length = new TradeSbeSerializer().serialize(trade, buffer, 0);
+        TradeView view = new TradeView();
+        
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            checksum += readTrade(view, buffer, length);
+        }
+        
+        // When
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += readTrade(view, buffer, length);
+        }
+        long allocatedBytes = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        
+        // Then
+        System.out.println("TradeView allocated " + allocatedBytes + " bytes over " + ITERATIONS + " messages");
+        assertThat(allocatedBytes / ITERATIONS).isZero();
+        assertThat(checksum).isNotZero();
+    }
+    
+    private static long readTrade(TradeView view, DirectBuffer buffer, int length) {
+        view.wrap(buffer, 0, length);
+        
+        long checksum = view.tradeId() + view.quantity() + view.side() + (long) view.price();
+        
+        CharSequence symbol = view.symbol();
+        for (int i = 0; i < symbol.length(); i++) {
+            checksum += symbol.charAt(i);
+        }
+        
+        CharSequence counterparty = view.counterparty();
+        for (int i = 0; i < counterparty.length(); i++) {
+            checksum += counterparty.charAt(i);
+        }
+        
+        return checksum;
+    }
+}